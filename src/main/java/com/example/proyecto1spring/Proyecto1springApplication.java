@@ -2,8 +2,10 @@ package com.example.proyecto1spring;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class Proyecto1springApplication {
 
 	public static void main(String[] args) {
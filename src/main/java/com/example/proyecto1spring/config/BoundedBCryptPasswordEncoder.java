@@ -0,0 +1,183 @@
+package com.example.proyecto1spring.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt ejecutado en un pool dedicado y acotado, para que una ráfaga de logins no consuma
+ * todos los hilos de Tomcat. La cola es corta (unos pocos hashes por hilo, muy por debajo del pool
+ * del servlet) y la espera acotada: si la cola está llena se responde 503 de inmediato en vez de
+ * dejar hilos de Tomcat esperando. El costo se calibra al arrancar según una latencia objetivo, y
+ * {@link #upgradeEncoding(String)} permite a Spring Security re-hashear en el login los hashes con
+ * un costo menor al objetivo.
+ */
+public class BoundedBCryptPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[abyx]?\\$(\\d\\d)\\$");
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Counter rejected;
+    private final Counter callerRuns;
+
+    /**
+     * @param strength costo fijo de BCrypt; si es 0 o negativo se calibra contra {@code targetMs}
+     */
+    public BoundedBCryptPasswordEncoder(int threads, int queueCapacity, long timeoutMs,
+                                        int strength, long targetMs, MeterRegistry meterRegistry) {
+        this.strength = strength > 0 ? strength : calibrate(targetMs);
+        this.delegate = new BCryptPasswordEncoder(this.strength);
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("security.bcrypt.queue.depth", executor, e -> e.getQueue().size())
+                .description("Operaciones BCrypt esperando un hilo")
+                .register(meterRegistry);
+        Gauge.builder("security.bcrypt.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("security.bcrypt.strength", this, e -> e.strength)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.bcrypt.rejected")
+                .description("Operaciones BCrypt rechazadas por pool saturado")
+                .register(meterRegistry);
+        this.callerRuns = Counter.builder("security.bcrypt.caller_runs")
+                .description("Hashes de cargas masivas calculados en el hilo del llamador por pool saturado")
+                .register(meterRegistry);
+
+        log.info("BCrypt con costo {} en pool de {} hilos (cola {})", this.strength, threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher m = BCRYPT_COST.matcher(encodedPassword);
+        // Solo se sube el costo: con la calibración por nodo, comparar por diferencia haría que
+        // nodos con costos distintos re-hashearan la misma contraseña en cada login
+        return m.find() && Integer.parseInt(m.group(1)) < strength;
+    }
+
+    /**
+     * Hash sin bloquear al llamador, para cargas masivas que procesan muchas contraseñas en paralelo.
+     * Si la cola está llena (logins en curso) el hash se calcula en el hilo del llamador en vez de
+     * fallar: la carga se frena sola y ninguna fila válida se pierde por saturación.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> delegate.encode(rawPassword), executor);
+        } catch (RejectedExecutionException e) {
+            callerRuns.increment();
+            try {
+                return CompletableFuture.completedFuture(delegate.encode(rawPassword));
+            } catch (RuntimeException encodeError) {
+                return CompletableFuture.failedFuture(encodeError);
+            }
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw saturated();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw saturated();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw saturated();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ResponseStatusException saturated() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Servicio de autenticación ocupado, intenta nuevamente");
+    }
+
+    /**
+     * Mide un hash con el costo mínimo y extrapola (cada punto de costo duplica el tiempo)
+     * al mayor costo que no supere la latencia objetivo.
+     */
+    private static int calibrate(long targetMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibracion"); // calentamiento del JIT
+        long start = System.nanoTime();
+        probe.encode("calibracion");
+        double elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000.0, 1.0);
+
+        int extra = (int) Math.floor(Math.log(targetMs / elapsedMs) / Math.log(2));
+        int calibrated = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, MIN_STRENGTH + extra));
+        log.info("BCrypt calibrado: costo {} ({} ms con costo {}, objetivo {} ms)",
+                calibrated, Math.round(elapsedMs), MIN_STRENGTH, targetMs);
+        return calibrated;
+    }
+}
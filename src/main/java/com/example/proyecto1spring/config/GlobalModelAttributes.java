@@ -1,35 +1,46 @@
 package com.example.proyecto1spring.config;
 
+import com.example.proyecto1spring.controllers.AdminAlumnosController;
+import com.example.proyecto1spring.controllers.AdminPlanesController;
+import com.example.proyecto1spring.controllers.ContactoController;
+import com.example.proyecto1spring.controllers.MiPlanController;
+import com.example.proyecto1spring.controllers.UserController;
+import com.example.proyecto1spring.controllers.indexController;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
-@ControllerAdvice
+// Solo para controladores de vistas Thymeleaf: los @RestController no usan estos atributos
+@ControllerAdvice(assignableTypes = {
+        indexController.class,
+        ContactoController.class,
+        UserController.class,
+        MiPlanController.class,
+        AdminAlumnosController.class,
+        AdminPlanesController.class
+})
 public class GlobalModelAttributes {
 
-    @ModelAttribute("isAuthenticated")
-    public boolean isAuthenticated() {
+    // Una sola lectura del SecurityContext por request para los tres atributos
+    @ModelAttribute
+    public void securityAttributes(Model model) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken);
-    }
-
-    @ModelAttribute("isAdmin")
-    public boolean isAdmin() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) return false;
-        for (GrantedAuthority ga : auth.getAuthorities()) {
-            if ("ROLE_ADMIN".equals(ga.getAuthority())) return true;
+        boolean authenticated = auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken);
+        boolean admin = false;
+        if (auth != null) {
+            for (GrantedAuthority ga : auth.getAuthorities()) {
+                if ("ROLE_ADMIN".equals(ga.getAuthority())) {
+                    admin = true;
+                    break;
+                }
+            }
         }
-        return false;
-    }
-
-    @ModelAttribute("username")
-    public String username() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) return null;
-        return auth.getName();
+        model.addAttribute("isAuthenticated", authenticated);
+        model.addAttribute("isAdmin", admin);
+        model.addAttribute("username", auth != null ? auth.getName() : null);
     }
 }
@@ -1,11 +1,18 @@
 package com.example.proyecto1spring.config;
 
+import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.service.JwtService;
 import com.example.proyecto1spring.service.MyUserDetailsService;
+import com.example.proyecto1spring.service.PrincipalCache;
+import com.example.proyecto1spring.service.SecurityVersionRegistry;
+import com.example.proyecto1spring.service.TokenDenylist;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,19 +25,35 @@ import java.io.IOException;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    // Sin estado: una sola instancia para todos los requests
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtService jwtService;
     private final MyUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final SecurityVersionRegistry securityVersions;
+    private final TokenDenylist tokenDenylist;
+    private final boolean claimsPrincipal;
 
-    public JwtAuthFilter(JwtService jwtService, MyUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService,
+                         MyUserDetailsService userDetailsService,
+                         PrincipalCache principalCache,
+                         SecurityVersionRegistry securityVersions,
+                         TokenDenylist tokenDenylist,
+                         @Value("${app.jwt.claims-principal:false}") boolean claimsPrincipal) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.securityVersions = securityVersions;
+        this.tokenDenylist = tokenDenylist;
+        this.claimsPrincipal = claimsPrincipal;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final Claims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,24 +62,43 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(jwt);
-        } catch (Exception e) {
+            // Firma y expiración se verifican una sola vez aquí
+            claims = jwtService.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+        final String username = claims.getSubject();
+        if (username != null && !tokenDenylist.isRevoked(claims.getId())
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(username, claims);
+            if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
+                UsernamePasswordAuthenticationToken authToken = UsernamePasswordAuthenticationToken.authenticated(
                         userDetails,
                         null,
                         userDetails.getAuthorities()
                 );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(DETAILS_SOURCE.buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * En modo claims-principal el usuario se arma desde el token y solo se verifica su versión
+     * de seguridad; tokens antiguos sin esos claims siguen el camino tradicional.
+     */
+    private UserDetails resolvePrincipal(String username, Claims claims) {
+        if (claimsPrincipal && claims.containsKey(JwtService.CLAIM_USER_ID)) {
+            Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+            Integer version = claims.get(JwtService.CLAIM_SECURITY_VERSION, Integer.class);
+            if (!securityVersions.isCurrent(userId, version)) {
+                return null;
+            }
+            return Usuario.fromClaims(userId, username, claims.get(JwtService.CLAIM_ROL, String.class));
+        }
+        return principalCache.get(username, userDetailsService::loadUserByUsername);
+    }
 }
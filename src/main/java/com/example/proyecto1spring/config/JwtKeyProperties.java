@@ -0,0 +1,120 @@
+package com.example.proyecto1spring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Llavero de claves JWT ({@code app.jwt.keys}). Cada clave se identifica por su {@code kid}
+ * y tiene una ventana de validez: firma a partir de {@code not-before} y se sigue aceptando
+ * para verificar hasta {@code not-after}, lo que permite rotar sin invalidar sesiones.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.jwt")
+public class JwtKeyProperties {
+
+    // kid usado para firmar; si se omite se elige la clave vigente más reciente
+    private String activeKid;
+
+    private List<Key> keys = new ArrayList<>();
+
+    // Con keys configuradas, app.jwt.secret solo se acepta para verificar hasta esta fecha
+    // (tokens emitidos antes de la rotación); si se omite, el secreto heredado queda retirado
+    private Instant legacyNotAfter;
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    public List<Key> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<Key> keys) {
+        this.keys = keys;
+    }
+
+    public Instant getLegacyNotAfter() {
+        return legacyNotAfter;
+    }
+
+    public void setLegacyNotAfter(Instant legacyNotAfter) {
+        this.legacyNotAfter = legacyNotAfter;
+    }
+
+    public static class Key {
+        private String kid;
+        // HS256/HS384/HS512 usan secret; ES256/ES384/ES512/RS256 usan private-key y public-key
+        private String algorithm = "HS256";
+        private String secret;
+        // PKCS#8 en Base64; puede omitirse en nodos que solo verifican
+        private String privateKey;
+        // X.509 (SubjectPublicKeyInfo) en Base64
+        private String publicKey;
+        private Instant notBefore;
+        private Instant notAfter;
+
+        public String getKid() {
+            return kid;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        public Instant getNotBefore() {
+            return notBefore;
+        }
+
+        public void setNotBefore(Instant notBefore) {
+            this.notBefore = notBefore;
+        }
+
+        public Instant getNotAfter() {
+            return notAfter;
+        }
+
+        public void setNotAfter(Instant notAfter) {
+            this.notAfter = notAfter;
+        }
+    }
+}
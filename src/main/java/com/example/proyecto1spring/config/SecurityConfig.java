@@ -1,15 +1,20 @@
 package com.example.proyecto1spring.config;
 
 import com.example.proyecto1spring.service.MyUserDetailsService;
+import com.example.proyecto1spring.util.KeysetPagination;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -32,43 +37,118 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.threads:4}") int threads,
+                                           @Value("${app.security.bcrypt.queue-capacity:8}") int queueCapacity,
+                                           @Value("${app.security.bcrypt.timeout:2000}") long timeoutMs,
+                                           @Value("${app.security.bcrypt.strength:0}") int strength,
+                                           @Value("${app.security.bcrypt.target-latency:100}") long targetLatencyMs,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedBCryptPasswordEncoder(threads, queueCapacity, timeoutMs, strength, targetLatencyMs, meterRegistry);
     }
 
+    /**
+     * Recursos estáticos, páginas públicas y Swagger: sin JwtAuthFilter ni SecurityContext.
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
         http
-            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .securityMatcher(
+                // Recursos estáticos para vistas Thymeleaf
+                "/img/**", "/static/**", "/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico",
+                // Swagger/OpenAPI
+                "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**",
+                // Páginas públicas
+                "/", "/index", "/index.html", "/nosotros", "/galeria", "/contacto", "/login", "/error", "/error/**"
+            )
             .csrf(csrf -> csrf.disable())
+            .securityContext(sc -> sc.disable())
+            .anonymous(anonymous -> anonymous.disable())
+            .requestCache(rc -> rc.disable())
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+            .formLogin(form -> form.disable())
+            .httpBasic(httpBasic -> httpBasic.disable());
+        return http.build();
+    }
+
+    /**
+     * API REST consumida por la app Ionic: JWT obligatorio salvo /api/auth/**.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider) throws Exception {
+        http
+            .securityMatcher("/api/**")
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/login").permitAll()
-                // Recursos estáticos para vistas Thymeleaf
-                .requestMatchers("/static/**", "/css/**", "/js/**", "/images/**", "/webjars/**").permitAll()
-                // Swagger/OpenAPI
-                .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
-                .requestMatchers("/", "/index", "/index.html", "/error", "/error/**").permitAll()
                 .anyRequest().authenticated()
-            )
-            .formLogin(form -> form.disable())
-            .httpBasic(httpBasic -> httpBasic.disable())
-            .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
-
-        http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            );
+        applyJwtDefaults(http);
 
         // Registrar el provider que usa nuestro UserDetailsService y PasswordEncoder
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
+
+        return http.build();
+    }
 
+    /**
+     * Vistas de administración.
+     */
+    @Bean
+    @Order(3)
+    public SecurityFilterChain adminFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/admin/**")
+            .authorizeHttpRequests(auth -> auth
+                // El despacho ASYNC que cierra una exportación en streaming ya fue autorizado en el request original
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .anyRequest().hasRole("ADMIN"));
+        applyJwtDefaults(http);
+        return http.build();
+    }
+
+    /**
+     * Resto de vistas (mi-plan, inscripción, usuarios, consola H2).
+     */
+    @Bean
+    @Order(4)
+    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        http
+            .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+            .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
+        applyJwtDefaults(http);
         return http.build();
     }
 
+    /**
+     * Como bean @Component Spring Boot registraría JwtAuthFilter también como filtro de servlet
+     * para todas las rutas; solo debe ejecutarse dentro de las cadenas que lo declaran.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter filter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    private void applyJwtDefaults(HttpSecurity http) throws Exception {
+        http
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .formLogin(form -> form.disable())
+            .httpBasic(httpBasic -> httpBasic.disable())
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+    }
+
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
+        // Re-hashea en el login si el costo guardado difiere del costo calibrado
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
@@ -84,7 +164,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", KeysetPagination.NEXT_CURSOR_HEADER, "ETag", "Last-Modified"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -1,7 +1,9 @@
 package com.example.proyecto1spring.controllers;
 
+import com.example.proyecto1spring.entity.AdminMemberView;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.entity.Usuario;
+import com.example.proyecto1spring.service.MemberViewService;
 import com.example.proyecto1spring.service.MembresiaService;
 import com.example.proyecto1spring.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,17 +23,25 @@ public class AdminAlumnosController {
 
     private final UserService userService;
     private final MembresiaService membresiaService;
+    private final MemberViewService memberViewService;
 
     @Autowired
-    public AdminAlumnosController(UserService userService, MembresiaService membresiaService) {
+    public AdminAlumnosController(UserService userService, MembresiaService membresiaService,
+                                  MemberViewService memberViewService) {
         this.userService = userService;
         this.membresiaService = membresiaService;
+        this.memberViewService = memberViewService;
     }
 
     @GetMapping
-    public String listarAlumnos(Model model) {
-        List<Usuario> alumnos = userService.findAll();
+    public String listarAlumnos(@RequestParam(defaultValue = "id") String sort,
+                                @RequestParam(defaultValue = "asc") String dir,
+                                Model model) {
+        // Una sola tabla desnormalizada: plan y vencimiento sin consultar membresías por fila
+        List<AdminMemberView> alumnos = memberViewService.findAll(sort, dir);
         model.addAttribute("alumnos", alumnos);
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", dir);
         return "admin_alumnos_list";
     }
 
@@ -0,0 +1,59 @@
+package com.example.proyecto1spring.controllers;
+
+import com.example.proyecto1spring.service.CsvExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Controller
+@RequestMapping("/admin/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final CsvExportService csvExportService;
+
+    public AdminExportController(CsvExportService csvExportService) {
+        this.csvExportService = csvExportService;
+    }
+
+    @GetMapping("/alumnos.csv")
+    public ResponseEntity<StreamingResponseBody> exportarAlumnos() {
+        return csv("alumnos.csv", out -> csvExportService.writeAlumnos(out));
+    }
+
+    @GetMapping("/membresias.csv")
+    public ResponseEntity<StreamingResponseBody> exportarMembresias() {
+        return csv("membresias.csv", out -> csvExportService.writeMembresias(out));
+    }
+
+    // El cuerpo se escribe en un hilo aparte mientras se recorre la consulta, sin armar el archivo en memoria
+    private ResponseEntity<StreamingResponseBody> csv(String filename, CsvWriter writer) {
+        StreamingResponseBody body = outputStream -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(out);
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface CsvWriter {
+        void write(Writer out) throws IOException;
+    }
+}
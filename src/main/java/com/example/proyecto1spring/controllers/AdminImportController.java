@@ -0,0 +1,45 @@
+package com.example.proyecto1spring.controllers;
+
+import com.example.proyecto1spring.dto.ImportReport;
+import com.example.proyecto1spring.service.BulkImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Carga masiva de alumnos para migrar un gimnasio completo. El reporte indica las filas importadas
+ * y el error de cada fila rechazada, por número de línea.
+ */
+@RestController
+@RequestMapping("/admin/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminImportController {
+
+    private final BulkImportService bulkImportService;
+
+    public AdminImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ImportReport> importarCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importCsv(reader(body)));
+    }
+
+    @PostMapping(consumes = "application/x-ndjson")
+    public ResponseEntity<ImportReport> importarNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importNdjson(reader(body)));
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.proyecto1spring.controllers;
 
+import com.example.proyecto1spring.dto.PlanDTO;
 import com.example.proyecto1spring.entity.HorarioEntrenamiento;
 import com.example.proyecto1spring.entity.Membresia;
-import com.example.proyecto1spring.entity.Plan;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.service.HorarioEntrenamientoService;
 import com.example.proyecto1spring.service.MembresiaService;
@@ -38,7 +38,7 @@ public class MiPlanController {
     public String verMiPlan(@AuthenticationPrincipal Usuario usuario, Model model) {
         Optional<Membresia> membresiaActual = membresiaService.findActiveMembresiaByUsuario(usuario);
         List<Membresia> historial = membresiaService.findByUsuario(usuario);
-        List<Plan> planesDisponibles = planService.findActivePlans();
+        List<PlanDTO> planesDisponibles = planService.findActivePlans();
 
         model.addAttribute("membresiaActual", membresiaActual.orElse(null));
         model.addAttribute("historialMembresias", historial);
@@ -3,6 +3,7 @@ package com.example.proyecto1spring.controllers.api;
 import com.example.proyecto1spring.dto.AlumnoRequest;
 import com.example.proyecto1spring.dto.AlumnoResponse;
 import com.example.proyecto1spring.service.AlumnoService;
+import com.example.proyecto1spring.util.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -18,15 +19,20 @@ import java.util.List;
 public class AlumnoCrudController {
 
     private final AlumnoService alumnoService;
+    private final KeysetPagination pagination;
 
-    public AlumnoCrudController(AlumnoService alumnoService) {
+    public AlumnoCrudController(AlumnoService alumnoService, KeysetPagination pagination) {
         this.alumnoService = alumnoService;
+        this.pagination = pagination;
     }
 
     @GetMapping
-    @Operation(summary = "Listar alumnos")
-    public ResponseEntity<List<AlumnoResponse>> findAll() {
-        return ResponseEntity.ok(alumnoService.findAll());
+    @Operation(summary = "Listar alumnos", description = "Página de alumnos; la siguiente página se indica en el header X-Next-Cursor")
+    public ResponseEntity<List<AlumnoResponse>> findAll(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        int pageSize = pagination.resolveSize(size);
+        List<AlumnoResponse> alumnos = alumnoService.findPage(pagination.decodeCursor(cursor), pagination.fetchSize(pageSize));
+        return pagination.toResponse(alumnos, pageSize, AlumnoResponse::getId);
     }
 
     @GetMapping("/{id}")
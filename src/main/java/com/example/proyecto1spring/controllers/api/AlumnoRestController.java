@@ -1,15 +1,18 @@
 package com.example.proyecto1spring.controllers.api;
 
 import com.example.proyecto1spring.dto.PlanAsignacionRequest;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.service.MembresiaService;
 import com.example.proyecto1spring.service.UserService;
+import com.example.proyecto1spring.util.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -29,7 +32,19 @@ public class AlumnoRestController {
 
     @GetMapping("/alumnos/me")
     @Operation(summary = "Obtener perfil propio")
-    public ResponseEntity<?> me(@AuthenticationPrincipal Usuario usuario) {
+    public ResponseEntity<?> me(@AuthenticationPrincipal Usuario principal, WebRequest request) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        // El id viene del principal: la versión se compara sin cargar el usuario
+        VersionStamp version = userService.findVersion(principal.getId()).orElse(null);
+        if (version == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (ConditionalGet.notModified(request, version, "alumno-" + principal.getId())) {
+            return null;
+        }
+        Usuario usuario = userService.resolvePrincipal(principal);
         if (usuario == null) {
             return ResponseEntity.status(401).build();
         }
@@ -44,8 +59,9 @@ public class AlumnoRestController {
 
     @PutMapping("/alumnos/me")
     @Operation(summary = "Actualizar perfil propio")
-    public ResponseEntity<?> updateMe(@AuthenticationPrincipal Usuario usuario,
+    public ResponseEntity<?> updateMe(@AuthenticationPrincipal Usuario principal,
                                       @RequestBody Map<String, String> body) {
+        Usuario usuario = userService.resolvePrincipal(principal);
         if (usuario == null) {
             return ResponseEntity.status(401).build();
         }
@@ -67,7 +83,13 @@ public class AlumnoRestController {
         if (usuario == null) {
             return ResponseEntity.status(401).build();
         }
-        Membresia membresia = membresiaService.createMembresia(usuario.getId(), request.getPlanId());
+        Membresia membresia;
+        try {
+            membresia = membresiaService.createMembresia(usuario.getId(), request.getPlanId());
+        } catch (IllegalArgumentException e) {
+            // Incluye el caso de una membresía activa ya existente (restricción unique en la base)
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
         return ResponseEntity.ok(Map.of(
                 "membresiaId", membresia.getId(),
                 "planId", membresia.getPlan().getId(),
@@ -2,6 +2,7 @@ package com.example.proyecto1spring.controllers.api;
 
 import com.example.proyecto1spring.dto.AuthResponse;
 import com.example.proyecto1spring.dto.LoginRequest;
+import com.example.proyecto1spring.dto.RefreshRequest;
 import com.example.proyecto1spring.dto.RegisterRequest;
 import com.example.proyecto1spring.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -46,10 +48,37 @@ public class AuthRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login exitoso",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class))),
-            @ApiResponse(responseCode = "401", description = "Credenciales inválidas")
+            @ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
+            @ApiResponse(responseCode = "429", description = "Demasiados intentos, reintentar más tarde")
     })
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // getRemoteAddr() ya viene resuelto desde X-Forwarded-For por proxies confiables (server.tomcat.remoteip)
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar token", description = "Entrega un access token nuevo y rota el refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens renovados",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado o ya usado")
+    })
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca el access token actual y, si se envía, el refresh token")
+    @ApiResponse(responseCode = "204", description = "Sesión cerrada")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                       @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,10 +1,13 @@
 package com.example.proyecto1spring.controllers.api;
 
 import com.example.proyecto1spring.dto.HorarioDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.HorarioEntrenamiento;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.service.HorarioEntrenamientoService;
 import com.example.proyecto1spring.service.MembresiaService;
+import com.example.proyecto1spring.util.ConditionalGet;
+import com.example.proyecto1spring.util.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,6 +17,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,21 +29,26 @@ public class HorarioRestController {
 
     private final HorarioEntrenamientoService horarioService;
     private final MembresiaService membresiaService;
+    private final KeysetPagination pagination;
 
-    public HorarioRestController(HorarioEntrenamientoService horarioService, MembresiaService membresiaService) {
+    public HorarioRestController(HorarioEntrenamientoService horarioService, MembresiaService membresiaService,
+                                 KeysetPagination pagination) {
         this.horarioService = horarioService;
         this.membresiaService = membresiaService;
+        this.pagination = pagination;
     }
 
     @GetMapping
-    @Operation(summary = "Obtener todos los horarios", description = "Retorna una lista de todos los horarios")
+    @Operation(summary = "Obtener todos los horarios", description = "Retorna una página de horarios; la siguiente página se indica en el header X-Next-Cursor")
     @ApiResponse(responseCode = "200", description = "Lista de horarios obtenida exitosamente")
-    public ResponseEntity<List<HorarioDTO>> getAllHorarios() {
-        List<HorarioEntrenamiento> horarios = horarioService.findAll();
+    public ResponseEntity<List<HorarioDTO>> getAllHorarios(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        int pageSize = pagination.resolveSize(size);
+        List<HorarioEntrenamiento> horarios = horarioService.findPage(pagination.decodeCursor(cursor), pagination.fetchSize(pageSize));
         List<HorarioDTO> dtos = horarios.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+        return pagination.toResponse(dtos, pageSize, HorarioDTO::getId);
     }
 
     @GetMapping("/membresia/{membresiaId}")
@@ -47,9 +56,18 @@ public class HorarioRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Horarios obtenidos exitosamente",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = HorarioDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Los horarios no cambiaron desde el ETag enviado"),
             @ApiResponse(responseCode = "404", description = "Membresía no encontrada")
     })
-    public ResponseEntity<List<HorarioDTO>> getHorariosByMembresia(@PathVariable Long membresiaId) {
+    public ResponseEntity<List<HorarioDTO>> getHorariosByMembresia(@PathVariable Long membresiaId, WebRequest request) {
+        // Cantidad y última modificación de los horarios en una consulta; la lista solo se carga si cambió
+        VersionStamp version = membresiaService.findHorariosVersion(membresiaId).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalGet.notModified(request, version, "horarios-m" + membresiaId)) {
+            return null;
+        }
         Membresia membresia = membresiaService.findById(membresiaId).orElse(null);
         if (membresia == null) {
             return ResponseEntity.notFound().build();
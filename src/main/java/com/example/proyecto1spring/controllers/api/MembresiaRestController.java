@@ -1,12 +1,18 @@
 package com.example.proyecto1spring.controllers.api;
 
+import com.example.proyecto1spring.dto.BulkMembresiasRequest;
+import com.example.proyecto1spring.dto.BulkResult;
 import com.example.proyecto1spring.dto.MembresiaDTO;
+import com.example.proyecto1spring.dto.MembresiaFiltro;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.entity.Plan;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.service.MembresiaService;
 import com.example.proyecto1spring.service.PlanService;
 import com.example.proyecto1spring.service.UserService;
+import com.example.proyecto1spring.util.ConditionalGet;
+import com.example.proyecto1spring.util.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,11 +21,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/membresias")
@@ -29,22 +36,44 @@ public class MembresiaRestController {
     private final MembresiaService membresiaService;
     private final PlanService planService;
     private final UserService userService;
+    private final KeysetPagination pagination;
 
-    public MembresiaRestController(MembresiaService membresiaService, PlanService planService, UserService userService) {
+    public MembresiaRestController(MembresiaService membresiaService, PlanService planService, UserService userService,
+                                   KeysetPagination pagination) {
         this.membresiaService = membresiaService;
         this.planService = planService;
         this.userService = userService;
+        this.pagination = pagination;
     }
 
     @GetMapping
-    @Operation(summary = "Obtener todas las membresías", description = "Retorna una lista de todas las membresías")
+    @Operation(summary = "Obtener todas las membresías", description = "Retorna una página de membresías; la siguiente página se indica en el header X-Next-Cursor")
     @ApiResponse(responseCode = "200", description = "Lista de membresías obtenida exitosamente")
-    public ResponseEntity<List<MembresiaDTO>> getAllMembresias() {
-        List<Membresia> membresias = membresiaService.findAll();
-        List<MembresiaDTO> dtos = membresias.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<MembresiaDTO>> getAllMembresias(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        int pageSize = pagination.resolveSize(size);
+        List<MembresiaDTO> dtos = membresiaService.findPage(pagination.decodeCursor(cursor), pagination.fetchSize(pageSize));
+        return pagination.toResponse(dtos, pageSize, MembresiaDTO::getId);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Buscar membresías", description = "Filtra por plan, usuario, estado y rangos de fechaInicio/fechaFin (yyyy-MM-dd, inclusivos); "
+            + "la siguiente página se indica en el header X-Next-Cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Membresías que cumplen todos los filtros"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<List<MembresiaDTO>> searchMembresias(@ModelAttribute MembresiaFiltro filtro,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        int pageSize = pagination.resolveSize(size);
+        try {
+            List<MembresiaDTO> dtos = membresiaService.search(filtro, pagination.decodeCursor(cursor), pagination.fetchSize(pageSize));
+            return pagination.toResponse(dtos, pageSize, MembresiaDTO::getId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/usuario/{usuarioId}")
@@ -55,25 +84,29 @@ public class MembresiaRestController {
             @ApiResponse(responseCode = "404", description = "Membresía no encontrada")
     })
     public ResponseEntity<MembresiaDTO> getMembresiaActiva(@PathVariable Long usuarioId) {
-        Membresia membresia = membresiaService.findByUsuarioIdAndActiva(usuarioId, true);
-        if (membresia == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(convertToDTO(membresia));
+        return membresiaService.findActiveDTOByUsuarioId(usuarioId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener membresía por ID", description = "Retorna los detalles de una membresía específica")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Membresía encontrada"),
+            @ApiResponse(responseCode = "304", description = "La membresía no cambió desde el ETag enviado"),
             @ApiResponse(responseCode = "404", description = "Membresía no encontrada")
     })
-    public ResponseEntity<MembresiaDTO> getMembresiaById(@PathVariable Long id) {
-        Membresia membresia = membresiaService.findById(id).orElse(null);
-        if (membresia == null) {
+    public ResponseEntity<MembresiaDTO> getMembresiaById(@PathVariable Long id, WebRequest request) {
+        VersionStamp version = membresiaService.findVersion(id).orElse(null);
+        if (version == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(convertToDTO(membresia));
+        if (ConditionalGet.notModified(request, version, "membresia-" + id)) {
+            return null;
+        }
+        return membresiaService.findDTOById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -94,10 +127,30 @@ public class MembresiaRestController {
         membresia.setFechaFin(membresiaDTO.getFechaFin());
         membresia.setActiva(membresiaDTO.getActiva() != null ? membresiaDTO.getActiva() : true);
 
-        Membresia savedMembresia = membresiaService.save(membresia);
+        Membresia savedMembresia;
+        try {
+            savedMembresia = membresiaService.save(membresia);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedMembresia));
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Asignar un plan a varios usuarios", description = "Crea la membresía para cada usuario en una sola transacción; omite los que ya tienen membresía activa")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cantidad de membresías creadas e ids omitidos"),
+            @ApiResponse(responseCode = "400", description = "Plan inexistente o lista vacía")
+    })
+    public ResponseEntity<BulkResult> createMembresias(@RequestBody BulkMembresiasRequest request) {
+        try {
+            return ResponseEntity.ok(membresiaService.createMembresias(request.getUsuarioIds(), request.getPlanId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar membresía", description = "Actualiza los detalles de una membresía")
     @ApiResponses(value = {
@@ -114,7 +167,12 @@ public class MembresiaRestController {
         membresia.setFechaFin(membresiaDTO.getFechaFin());
         membresia.setActiva(membresiaDTO.getActiva());
 
-        Membresia updatedMembresia = membresiaService.save(membresia);
+        Membresia updatedMembresia;
+        try {
+            updatedMembresia = membresiaService.save(membresia);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         return ResponseEntity.ok(convertToDTO(updatedMembresia));
     }
 
@@ -1,8 +1,14 @@
 package com.example.proyecto1spring.controllers.api;
 
+import com.example.proyecto1spring.dto.BulkPlanesRequest;
+import com.example.proyecto1spring.dto.BulkResult;
 import com.example.proyecto1spring.dto.PlanDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Plan;
+import com.example.proyecto1spring.service.PlanCatalog;
 import com.example.proyecto1spring.service.PlanService;
+import com.example.proyecto1spring.util.ConditionalGet;
+import com.example.proyecto1spring.util.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,11 +16,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/planes")
@@ -22,21 +30,33 @@ import java.util.stream.Collectors;
 public class PlanRestController {
 
     private final PlanService planService;
+    private final KeysetPagination pagination;
+    private final PlanCatalog planCatalog;
 
-    public PlanRestController(PlanService planService) {
+    public PlanRestController(PlanService planService, KeysetPagination pagination, PlanCatalog planCatalog) {
         this.planService = planService;
+        this.pagination = pagination;
+        this.planCatalog = planCatalog;
     }
 
     @GetMapping
-    @Operation(summary = "Obtener todos los planes", description = "Retorna una lista de todos los planes disponibles")
+    @Operation(summary = "Obtener todos los planes", description = "Retorna una página de planes; la siguiente página se indica en el header X-Next-Cursor")
     @ApiResponse(responseCode = "200", description = "Lista de planes obtenida exitosamente",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDTO.class)))
-    public ResponseEntity<List<PlanDTO>> getAllPlanes() {
-        List<Plan> planes = planService.findAll();
-        List<PlanDTO> dtos = planes.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> getAllPlanes(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          WebRequest request) {
+        int pageSize = pagination.resolveSize(size);
+        // Caso habitual: el catálogo completo cabe en la primera página y se responde con el JSON ya serializado
+        if (cursor == null && planCatalog.size() <= pageSize) {
+            VersionStamp version = planCatalog.getVersion();
+            if (ConditionalGet.notModified(request, version, "planes")) {
+                return null;
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(planCatalog.getJson());
+        }
+        List<PlanDTO> dtos = planService.findPage(pagination.decodeCursor(cursor), pagination.fetchSize(pageSize));
+        return pagination.toResponse(dtos, pageSize, PlanDTO::getId);
     }
 
     @GetMapping("/{id}")
@@ -44,14 +64,21 @@ public class PlanRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Plan encontrado",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlanDTO.class))),
+            @ApiResponse(responseCode = "304", description = "El plan no cambió desde el ETag enviado"),
             @ApiResponse(responseCode = "404", description = "Plan no encontrado")
     })
-    public ResponseEntity<PlanDTO> getPlanById(@PathVariable Long id) {
-        Plan plan = planService.findById(id).orElse(null);
-        if (plan == null) {
+    public ResponseEntity<PlanDTO> getPlanById(@PathVariable Long id, WebRequest request) {
+        // La versión se consulta antes de cargar y serializar el plan
+        VersionStamp version = planService.findVersion(id).orElse(null);
+        if (version == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(convertToDTO(plan));
+        if (ConditionalGet.notModified(request, version, "plan-" + id)) {
+            return null;
+        }
+        return planService.findDTOById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -99,6 +126,18 @@ public class PlanRestController {
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/bulk/activo")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Activar o desactivar planes en bloque", description = "Aplica el estado a una lista de planes con un solo UPDATE")
+    @ApiResponse(responseCode = "200", description = "Cantidad de planes actualizados e ids omitidos")
+    public ResponseEntity<BulkResult> setActiveBulk(@RequestBody BulkPlanesRequest request) {
+        try {
+            return ResponseEntity.ok(planService.setActiveBulk(request.getIds(), request.isActivo()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     private PlanDTO convertToDTO(Plan plan) {
         return new PlanDTO(
                 plan.getId(),
@@ -0,0 +1,33 @@
+package com.example.proyecto1spring.controllers.api;
+
+import com.example.proyecto1spring.dto.SearchResult;
+import com.example.proyecto1spring.service.SearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Búsqueda", description = "Búsqueda de usuarios, planes y alumnos para administración")
+@PreAuthorize("hasRole('ADMIN')")
+public class SearchRestController {
+
+    private final SearchIndex searchIndex;
+
+    public SearchRestController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @GetMapping
+    @Operation(summary = "Buscar", description = "Busca por nombre, apellido, email o RUT de usuarios, nombre de planes y nombre de alumnos; resultados ordenados por relevancia")
+    @ApiResponse(responseCode = "200", description = "Resultados de la búsqueda")
+    public ResponseEntity<List<SearchResult>> search(@RequestParam String q,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchIndex.search(q, limit));
+    }
+}
@@ -1,19 +1,24 @@
 package com.example.proyecto1spring.controllers.api;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.BulkUsuariosRequest;
+import com.example.proyecto1spring.dto.DuplicateCandidate;
 import com.example.proyecto1spring.dto.UsuarioDTO;
-import com.example.proyecto1spring.entity.Usuario;
+import com.example.proyecto1spring.service.DuplicateDetector;
 import com.example.proyecto1spring.service.UserService;
+import com.example.proyecto1spring.util.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -21,20 +26,23 @@ import java.util.stream.Collectors;
 public class UsuarioRestController {
 
     private final UserService userService;
+    private final KeysetPagination pagination;
+    private final DuplicateDetector duplicateDetector;
 
-    public UsuarioRestController(UserService userService) {
+    public UsuarioRestController(UserService userService, KeysetPagination pagination, DuplicateDetector duplicateDetector) {
         this.userService = userService;
+        this.pagination = pagination;
+        this.duplicateDetector = duplicateDetector;
     }
 
     @GetMapping
-    @Operation(summary = "Obtener todos los usuarios", description = "Retorna una lista de todos los usuarios sin información sensible")
+    @Operation(summary = "Obtener todos los usuarios", description = "Retorna una página de usuarios sin información sensible; la siguiente página se indica en el header X-Next-Cursor")
     @ApiResponse(responseCode = "200", description = "Lista de usuarios obtenida exitosamente")
-    public ResponseEntity<List<UsuarioDTO>> getAllUsuarios() {
-        List<Usuario> usuarios = userService.findAll();
-        List<UsuarioDTO> dtos = usuarios.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<UsuarioDTO>> getAllUsuarios(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        int pageSize = pagination.resolveSize(size);
+        List<UsuarioDTO> dtos = userService.findPage(pagination.decodeCursor(cursor), pagination.fetchSize(pageSize));
+        return pagination.toResponse(dtos, pageSize, UsuarioDTO::getId);
     }
 
     @GetMapping("/{id}")
@@ -45,11 +53,9 @@ public class UsuarioRestController {
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
     })
     public ResponseEntity<UsuarioDTO> getUsuarioById(@PathVariable Long id) {
-        Usuario usuario = userService.findById(id).orElse(null);
-        if (usuario == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(convertToDTO(usuario));
+        return userService.findDTOById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/email/{email}")
@@ -59,21 +65,46 @@ public class UsuarioRestController {
             @ApiResponse(responseCode = "404", description = "Usuario no encontrado")
     })
     public ResponseEntity<UsuarioDTO> getUsuarioByEmail(@PathVariable String email) {
-        Usuario usuario = userService.findByEmailAsUsuario(email);
-        if (usuario == null) {
-            return ResponseEntity.notFound().build();
+        return userService.findDTOByEmail(email)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/bulk/enabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Habilitar o deshabilitar usuarios en bloque", description = "Aplica el estado a una lista de ids o a los usuarios que cumplen el filtro, con un solo UPDATE por bloque")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cantidad de usuarios actualizados e ids omitidos"),
+            @ApiResponse(responseCode = "400", description = "Sin ids ni filtro")
+    })
+    public ResponseEntity<BulkResult> setEnabledBulk(@RequestBody BulkUsuariosRequest request) {
+        try {
+            return ResponseEntity.ok(userService.setEnabledBulk(request.getIds(), request.getRol(),
+                    request.getSinMembresiaActiva(), request.isEnabled()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(convertToDTO(usuario));
     }
 
-    private UsuarioDTO convertToDTO(Usuario usuario) {
-        return new UsuarioDTO(
-                usuario.getId(),
-                usuario.getNombre(),
-                usuario.getApellido(),
-                usuario.getEmail(),
-                usuario.getRut(),
-                usuario.getRol()
-        );
+    @GetMapping("/duplicados")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Posibles cuentas duplicadas", description = "Pares de usuarios con nombre, email o RUT similares según el último escaneo")
+    @ApiResponse(responseCode = "200", description = "Candidatos ordenados por similitud")
+    public ResponseEntity<List<DuplicateCandidate>> getDuplicados() {
+        return ResponseEntity.ok(duplicateDetector.getCandidates());
+    }
+
+    @PostMapping("/duplicados/escaneo")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recalcular duplicados", description = "Ejecuta el escaneo de duplicados sin esperar al siguiente ciclo programado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Escaneo completado"),
+            @ApiResponse(responseCode = "409", description = "Ya hay un escaneo en curso")
+    })
+    public ResponseEntity<List<DuplicateCandidate>> escanearDuplicados() {
+        if (!duplicateDetector.scan()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(duplicateDetector.getCandidates());
     }
 }
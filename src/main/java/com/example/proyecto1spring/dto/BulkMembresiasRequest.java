@@ -0,0 +1,24 @@
+package com.example.proyecto1spring.dto;
+
+import java.util.List;
+
+public class BulkMembresiasRequest {
+    private List<Long> usuarioIds;
+    private Long planId;
+
+    public List<Long> getUsuarioIds() {
+        return usuarioIds;
+    }
+
+    public void setUsuarioIds(List<Long> usuarioIds) {
+        this.usuarioIds = usuarioIds;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(Long planId) {
+        this.planId = planId;
+    }
+}
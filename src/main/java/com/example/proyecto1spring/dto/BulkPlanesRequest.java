@@ -0,0 +1,24 @@
+package com.example.proyecto1spring.dto;
+
+import java.util.List;
+
+public class BulkPlanesRequest {
+    private List<Long> ids;
+    private boolean activo;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+
+    public void setActivo(boolean activo) {
+        this.activo = activo;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.proyecto1spring.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una operación masiva: filas afectadas e ids omitidos (no encontrados o ya en el estado pedido).
+ */
+public class BulkResult {
+    private int afectados;
+    private List<Long> omitidos = new ArrayList<>();
+
+    public BulkResult() {
+    }
+
+    public BulkResult(int afectados, List<Long> omitidos) {
+        this.afectados = afectados;
+        this.omitidos = omitidos;
+    }
+
+    public int getAfectados() {
+        return afectados;
+    }
+
+    public void setAfectados(int afectados) {
+        this.afectados = afectados;
+    }
+
+    public List<Long> getOmitidos() {
+        return omitidos;
+    }
+
+    public void setOmitidos(List<Long> omitidos) {
+        this.omitidos = omitidos;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.proyecto1spring.dto;
+
+import java.util.List;
+
+/**
+ * Selección de usuarios para una operación masiva: por ids o por filtro (rol y/o sin membresía activa).
+ */
+public class BulkUsuariosRequest {
+    private List<Long> ids;
+    private String rol;
+    private Boolean sinMembresiaActiva;
+    private boolean enabled;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public void setRol(String rol) {
+        this.rol = rol;
+    }
+
+    public Boolean getSinMembresiaActiva() {
+        return sinMembresiaActiva;
+    }
+
+    public void setSinMembresiaActiva(Boolean sinMembresiaActiva) {
+        this.sinMembresiaActiva = sinMembresiaActiva;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
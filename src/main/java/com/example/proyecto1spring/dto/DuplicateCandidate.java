@@ -0,0 +1,36 @@
+package com.example.proyecto1spring.dto;
+
+import java.util.List;
+
+/**
+ * Par de usuarios que probablemente corresponden a la misma persona.
+ */
+public class DuplicateCandidate {
+    private final UsuarioDTO usuarioA;
+    private final UsuarioDTO usuarioB;
+    private final double similitud;
+    private final List<String> motivos;
+
+    public DuplicateCandidate(UsuarioDTO usuarioA, UsuarioDTO usuarioB, double similitud, List<String> motivos) {
+        this.usuarioA = usuarioA;
+        this.usuarioB = usuarioB;
+        this.similitud = similitud;
+        this.motivos = motivos;
+    }
+
+    public UsuarioDTO getUsuarioA() {
+        return usuarioA;
+    }
+
+    public UsuarioDTO getUsuarioB() {
+        return usuarioB;
+    }
+
+    public double getSimilitud() {
+        return similitud;
+    }
+
+    public List<String> getMotivos() {
+        return motivos;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.proyecto1spring.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+    private int total;
+    private int importados;
+    private final List<Error> errores = new ArrayList<>();
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getImportados() {
+        return importados;
+    }
+
+    public void addImportados(int count) {
+        this.importados += count;
+    }
+
+    public List<Error> getErrores() {
+        return errores;
+    }
+
+    public void addError(int linea, String email, String mensaje) {
+        errores.add(new Error(linea, email, mensaje));
+    }
+
+    public record Error(int linea, String email, String mensaje) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.proyecto1spring.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fila de la importación masiva: un usuario con su membresía y horarios opcionales.
+ */
+public class ImportRow {
+    private int linea;
+    private String rut;
+    private String nombre;
+    private String apellido;
+    private String email;
+    private String password;
+    private String rol;
+    private String plan;
+    private LocalDate fechaInicio;
+    private List<Horario> horarios = new ArrayList<>();
+
+    public int getLinea() {
+        return linea;
+    }
+
+    public void setLinea(int linea) {
+        this.linea = linea;
+    }
+
+    public String getRut() {
+        return rut;
+    }
+
+    public void setRut(String rut) {
+        this.rut = rut;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public void setApellido(String apellido) {
+        this.apellido = apellido;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public void setRol(String rol) {
+        this.rol = rol;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDate fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public List<Horario> getHorarios() {
+        return horarios;
+    }
+
+    public void setHorarios(List<Horario> horarios) {
+        this.horarios = horarios != null ? horarios : new ArrayList<>();
+    }
+
+    public static class Horario {
+        private String diaSemana;
+        private String horaInicio;
+        private String horaFin;
+
+        public Horario() {
+        }
+
+        public Horario(String diaSemana, String horaInicio, String horaFin) {
+            this.diaSemana = diaSemana;
+            this.horaInicio = horaInicio;
+            this.horaFin = horaFin;
+        }
+
+        public String getDiaSemana() {
+            return diaSemana;
+        }
+
+        public void setDiaSemana(String diaSemana) {
+            this.diaSemana = diaSemana;
+        }
+
+        public String getHoraInicio() {
+            return horaInicio;
+        }
+
+        public void setHoraInicio(String horaInicio) {
+            this.horaInicio = horaInicio;
+        }
+
+        public String getHoraFin() {
+            return horaFin;
+        }
+
+        public void setHoraFin(String horaFin) {
+            this.horaFin = horaFin;
+        }
+    }
+}
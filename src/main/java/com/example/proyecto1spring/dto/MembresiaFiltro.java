@@ -0,0 +1,83 @@
+package com.example.proyecto1spring.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de {@code /api/membresias/search}. Los campos nulos no filtran; los rangos de fechas son
+ * inclusivos.
+ */
+public class MembresiaFiltro {
+    private Long planId;
+    private Long usuarioId;
+    private Boolean activa;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaInicioDesde;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaInicioHasta;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaFinDesde;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaFinHasta;
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(Long planId) {
+        this.planId = planId;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Boolean getActiva() {
+        return activa;
+    }
+
+    public void setActiva(Boolean activa) {
+        this.activa = activa;
+    }
+
+    public LocalDate getFechaInicioDesde() {
+        return fechaInicioDesde;
+    }
+
+    public void setFechaInicioDesde(LocalDate fechaInicioDesde) {
+        this.fechaInicioDesde = fechaInicioDesde;
+    }
+
+    public LocalDate getFechaInicioHasta() {
+        return fechaInicioHasta;
+    }
+
+    public void setFechaInicioHasta(LocalDate fechaInicioHasta) {
+        this.fechaInicioHasta = fechaInicioHasta;
+    }
+
+    public LocalDate getFechaFinDesde() {
+        return fechaFinDesde;
+    }
+
+    public void setFechaFinDesde(LocalDate fechaFinDesde) {
+        this.fechaFinDesde = fechaFinDesde;
+    }
+
+    public LocalDate getFechaFinHasta() {
+        return fechaFinHasta;
+    }
+
+    public void setFechaFinHasta(LocalDate fechaFinHasta) {
+        this.fechaFinHasta = fechaFinHasta;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.proyecto1spring.dto;
+
+public class SearchResult {
+    private final String tipo;
+    private final Long id;
+    private final String titulo;
+    private final String detalle;
+    private final int score;
+
+    public SearchResult(String tipo, Long id, String titulo, String detalle, int score) {
+        this.tipo = tipo;
+        this.id = id;
+        this.titulo = titulo;
+        this.detalle = detalle;
+        this.score = score;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getDetalle() {
+        return detalle;
+    }
+
+    public int getScore() {
+        return score;
+    }
+}
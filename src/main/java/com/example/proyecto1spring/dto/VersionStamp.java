@@ -0,0 +1,60 @@
+package com.example.proyecto1spring.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Versión de un recurso para GET condicional: la última modificación y, en colecciones, la cantidad
+ * de elementos (así un borrado también cambia la versión). Se obtiene con una consulta de agregados,
+ * sin cargar entidades.
+ */
+public class VersionStamp {
+    private final long count;
+    private final long lastModified;
+
+    public VersionStamp(LocalDateTime updatedAt) {
+        this(1L, millis(updatedAt));
+    }
+
+    public VersionStamp(Date updatedAt) {
+        this(1L, millis(updatedAt));
+    }
+
+    // Recurso que muestra datos de otras entidades: la membresía con el usuario y el plan del DTO
+    public VersionStamp(LocalDateTime updatedAt, Date usuarioUpdatedAt, LocalDateTime planUpdatedAt) {
+        this(1L, Math.max(Math.max(millis(updatedAt), millis(usuarioUpdatedAt)), millis(planUpdatedAt)));
+    }
+
+    public VersionStamp(Long count, LocalDateTime maxUpdatedAt) {
+        this(count != null ? count : 0L, millis(maxUpdatedAt));
+    }
+
+    public VersionStamp(long count, long lastModified) {
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * ETag fuerte para el recurso {@code prefix}, por ejemplo {@code "plan-3-1-1760000000000"}.
+     */
+    public String etag(String prefix) {
+        return "\"" + prefix + "-" + count + "-" + lastModified + "\"";
+    }
+
+    private static long millis(LocalDateTime value) {
+        return value != null ? value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    private static long millis(Date value) {
+        return value != null ? value.getTime() : 0L;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.proyecto1spring.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila desnormalizada del listado de alumnos del panel de administración: datos del usuario más su
+ * membresía activa y el nombre del plan. La mantiene {@code MemberViewService} en la misma
+ * transacción que modifica usuarios o membresías; JPA solo la lee.
+ */
+@Entity
+@Immutable
+@Table(name = "admin_member_view", indexes = {
+        // Una por columna ordenable del listado
+        @Index(name = "idx_member_view_apellido", columnList = "apellido"),
+        @Index(name = "idx_member_view_email", columnList = "email"),
+        @Index(name = "idx_member_view_rut", columnList = "rut"),
+        @Index(name = "idx_member_view_plan", columnList = "plan_nombre"),
+        @Index(name = "idx_member_view_fecha_fin", columnList = "fecha_fin"),
+        @Index(name = "idx_member_view_estado", columnList = "estado"),
+        @Index(name = "idx_member_view_plan_id", columnList = "plan_id")
+})
+public class AdminMemberView {
+
+    public static final String ACTIVA = "ACTIVA";
+    public static final String VENCIDA = "VENCIDA";
+    public static final String SIN_MEMBRESIA = "SIN_MEMBRESIA";
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long id;
+
+    private String rut;
+
+    private String nombre;
+
+    private String apellido;
+
+    private String email;
+
+    private String rol;
+
+    private boolean enabled;
+
+    @Column(name = "membresia_id")
+    private Long membresiaId;
+
+    @Column(name = "plan_id")
+    private Long planId;
+
+    @Column(name = "plan_nombre")
+    private String planNombre;
+
+    @Column(name = "fecha_inicio")
+    private LocalDate fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDate fechaFin;
+
+    @Column(nullable = false, length = 20)
+    private String estado;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    protected AdminMemberView() {
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getRut() {
+        return rut;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Long getMembresiaId() {
+        return membresiaId;
+    }
+
+    public Long getPlanId() {
+        return planId;
+    }
+
+    public String getPlanNombre() {
+        return planNombre;
+    }
+
+    public LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public LocalDate getFechaFin() {
+        return fechaFin;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.proyecto1spring.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access token revocado (logout) identificado por su jti. La fila vive hasta que expira el token;
+ * desde esta tabla se reconstruye la lista en memoria al arrancar y en cada nodo.
+ */
+@Entity
+@Table(name = "denied_tokens", indexes = {
+        // La limpieza y la recarga filtran por expiración
+        @Index(name = "idx_denied_tokens_expires_at", columnList = "expires_at")
+})
+public class DeniedToken {
+
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Constructores
+    public DeniedToken() {
+    }
+
+    public DeniedToken(String jti, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters y Setters
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -7,9 +7,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "membresias")
+@Table(name = "membresias", uniqueConstraints = {
+        // Una sola membresía activa por usuario, garantizado por la base de datos
+        @UniqueConstraint(name = Membresia.UK_ACTIVA_USUARIO, columnNames = "activa_usuario_id")
+}, indexes = {
+        // Búsqueda por plan y estado con rango de vencimiento ("activas del plan X que vencen este mes")
+        @Index(name = "idx_membresias_plan_activa_fecha_fin", columnList = "plan_id, activa, fecha_fin"),
+        // Membresías (activas) de un usuario
+        @Index(name = "idx_membresias_usuario_activa", columnList = "usuario_id, activa")
+})
 public class Membresia {
 
+    public static final String UK_ACTIVA_USUARIO = "uk_membresias_activa_usuario";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,6 +45,11 @@ public class Membresia {
     @Column(nullable = false)
     private Boolean activa = true;
 
+    // Copia de usuario_id mientras la membresía está activa y NULL en otro caso: el índice unique
+    // ignora los NULL, así que solo restringe las activas (equivale a un índice parcial)
+    @Column(name = "activa_usuario_id")
+    private Long activaUsuarioId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -45,11 +60,17 @@ public class Membresia {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        syncActivaUsuarioId();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        syncActivaUsuarioId();
+    }
+
+    private void syncActivaUsuarioId() {
+        activaUsuarioId = Boolean.TRUE.equals(activa) && usuario != null ? usuario.getId() : null;
     }
 
     // Constructores
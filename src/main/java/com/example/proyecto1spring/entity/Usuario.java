@@ -1,19 +1,26 @@
 package com.example.proyecto1spring.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Entity
 @Table(name = "usuarios")
+// Los usuarios eliminados quedan ocultos para JPA hasta que el purgador borra sus filas
+@SQLRestriction("deleted_at is null")
 public class Usuario implements UserDetails {
 
+    // Autoridades inmutables compartidas por rol: getAuthorities() no asigna memoria por request
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES_BY_ROL = new ConcurrentHashMap<>();
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,6 +47,18 @@ public class Usuario implements UserDetails {
     @Temporal(TemporalType.TIMESTAMP)
     private Date updateAt;
 
+    // Se incrementa al deshabilitar la cuenta o cambiar credenciales/rol: invalida los tokens emitidos antes
+    @Column(name = "security_version")
+    private Integer securityVersion = 0;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "deleted_at")
+    private Date deletedAt;
+
+    // true cuando la instancia se construyó desde los claims del JWT y no desde la base de datos
+    @Transient
+    private boolean claimsOnly;
+
     public Usuario() {
         this.enabled = true;
     }
@@ -53,6 +72,19 @@ public class Usuario implements UserDetails {
         this.enabled = true;
     }
 
+    /**
+     * Principal liviano construido a partir de los claims del token, sin consultar la base de datos.
+     * Solo contiene id, email y rol; usar {@code UserService.resolvePrincipal} para obtener la entidad completa.
+     */
+    public static Usuario fromClaims(Long id, String email, String rol) {
+        Usuario u = new Usuario();
+        u.id = id;
+        u.email = email;
+        u.rol = rol;
+        u.claimsOnly = true;
+        return u;
+    }
+
     @PrePersist
     protected void onCreate() {
         this.creatAt = new Date();
@@ -105,6 +137,22 @@ public class Usuario implements UserDetails {
         return updateAt;
     }
 
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public int getSecurityVersion() {
+        return securityVersion != null ? securityVersion : 0;
+    }
+
+    public void bumpSecurityVersion() {
+        this.securityVersion = getSecurityVersion() + 1;
+    }
+
+    public boolean isClaimsOnly() {
+        return claimsOnly;
+    }
+
     // setters
     public void setRut(String rut) {
         this.rut = rut;
@@ -148,11 +196,10 @@ public class Usuario implements UserDetails {
     // UserDetails methods
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        List<GrantedAuthority> auth = new ArrayList<>();
-        if (this.rol != null && !this.rol.isBlank()) {
-            auth.add(new SimpleGrantedAuthority("ROLE_" + this.rol));
+        if (this.rol == null || this.rol.isBlank()) {
+            return List.of();
         }
-        return auth;
+        return AUTHORITIES_BY_ROL.computeIfAbsent(this.rol, r -> List.of(new SimpleGrantedAuthority("ROLE_" + r)));
     }
 
     @Override
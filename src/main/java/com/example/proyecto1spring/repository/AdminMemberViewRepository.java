@@ -0,0 +1,9 @@
+package com.example.proyecto1spring.repository;
+
+import com.example.proyecto1spring.entity.AdminMemberView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AdminMemberViewRepository extends JpaRepository<AdminMemberView, Long> {
+}
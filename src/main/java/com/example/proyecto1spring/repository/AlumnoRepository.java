@@ -1,7 +1,12 @@
 package com.example.proyecto1spring.repository;
 
 import com.example.proyecto1spring.entity.Alumno;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface AlumnoRepository extends JpaRepository<Alumno, Long> {
+
+    List<Alumno> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
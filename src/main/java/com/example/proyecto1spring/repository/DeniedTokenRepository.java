@@ -0,0 +1,21 @@
+package com.example.proyecto1spring.repository;
+
+import com.example.proyecto1spring.entity.DeniedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeniedTokenRepository extends JpaRepository<DeniedToken, String> {
+
+    List<DeniedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    @Modifying
+    @Query("delete from DeniedToken d where d.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,7 +2,11 @@ package com.example.proyecto1spring.repository;
 
 import com.example.proyecto1spring.entity.HorarioEntrenamiento;
 import com.example.proyecto1spring.entity.Membresia;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +18,10 @@ public interface HorarioEntrenamientoRepository extends JpaRepository<HorarioEnt
     
     List<HorarioEntrenamiento> findByMembresia(Membresia membresia);
     
-    void deleteByMembresia(Membresia membresia);
+    // DELETE único en la base de datos; el derivado deleteBy... cargaba y borraba cada entidad por separado
+    @Modifying
+    @Query("delete from HorarioEntrenamiento h where h.membresia = :membresia")
+    int deleteByMembresia(@Param("membresia") Membresia membresia);
+
+    List<HorarioEntrenamiento> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
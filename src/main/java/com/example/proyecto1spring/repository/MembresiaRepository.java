@@ -1,23 +1,80 @@
 package com.example.proyecto1spring.repository;
 
+import com.example.proyecto1spring.dto.MembresiaDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.entity.Usuario;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MembresiaRepository extends JpaRepository<Membresia, Long> {
-    
+public interface MembresiaRepository extends JpaRepository<Membresia, Long>, JpaSpecificationExecutor<Membresia> {
+
+    // Las vistas y DTOs leen usuario y plan de cada membresía: se traen en el mismo SELECT
+    // para no disparar 2 consultas extra por fila
+    @EntityGraph(attributePaths = {"usuario", "plan"})
     Optional<Membresia> findByUsuarioAndActivaTrue(Usuario usuario);
-    
+
+    @EntityGraph(attributePaths = {"usuario", "plan"})
     List<Membresia> findByUsuario(Usuario usuario);
-    
+
+    @EntityGraph(attributePaths = {"usuario", "plan"})
     List<Membresia> findByActivaTrue();
-    
+
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "plan"})
+    List<Membresia> findAll();
+
     boolean existsByUsuarioAndActivaTrue(Usuario usuario);
 
+    @EntityGraph(attributePaths = {"usuario", "plan"})
     Membresia findByUsuarioIdAndActiva(Long usuarioId, Boolean activa);
+
+    // Proyecciones con join explícito: una sola consulta, sin cargar Usuario ni Plan como entidades
+    String DTO_SELECT = "select new com.example.proyecto1spring.dto.MembresiaDTO(m.id, u.id, concat(u.nombre, ' ', u.apellido), "
+            + "u.email, p.id, p.nombre, m.fechaInicio, m.fechaFin, m.activa) "
+            + "from Membresia m join m.usuario u join m.plan p where u.deletedAt is null ";
+
+    @Query(DTO_SELECT + "and m.id > :afterId order by m.id")
+    List<MembresiaDTO> findDTOPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(DTO_SELECT + "and m.id = :id")
+    Optional<MembresiaDTO> findDTOById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "and u.id = :usuarioId and m.activa = true")
+    Optional<MembresiaDTO> findActiveDTOByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // El DTO incluye datos del usuario y del plan: la versión considera las tres modificaciones
+    @Query("select new com.example.proyecto1spring.dto.VersionStamp(m.updatedAt, u.updateAt, p.updatedAt) "
+            + "from Membresia m join m.usuario u left join m.plan p where m.id = :id and u.deletedAt is null")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
+
+    // Cantidad y última modificación de los horarios; vacío si la membresía no existe
+    @Query("select new com.example.proyecto1spring.dto.VersionStamp(count(h), max(h.updatedAt)) "
+            + "from Membresia m left join HorarioEntrenamiento h on h.membresia = m where m.id = :id group by m.id")
+    Optional<VersionStamp> findHorariosVersion(@Param("id") Long id);
+
+    @Query("select m.usuario.id from Membresia m where m.usuario.id in :usuarioIds and m.activa = true")
+    List<Long> findUsuarioIdsWithActiveMembresia(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    // Exportación: usuario y plan en el mismo SELECT para no disparar una consulta por fila
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select m from Membresia m join fetch m.usuario join fetch m.plan order by m.id")
+    Stream<Membresia> streamAllWithUsuarioAndPlan();
 }
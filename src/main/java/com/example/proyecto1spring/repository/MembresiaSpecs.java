@@ -0,0 +1,60 @@
+package com.example.proyecto1spring.repository;
+
+import com.example.proyecto1spring.dto.MembresiaFiltro;
+import com.example.proyecto1spring.entity.Membresia;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications de {@link Membresia} para la búsqueda con filtros combinados. Las condiciones usan
+ * las columnas de los índices compuestos (plan_id, activa, fecha_fin) y (usuario_id, activa).
+ */
+public final class MembresiaSpecs {
+
+    private MembresiaSpecs() {
+    }
+
+    /**
+     * Filtros del request más keyset por id. Trae usuario y plan en el mismo SELECT y excluye a los
+     * usuarios dados de baja.
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<Membresia> search(MembresiaFiltro filtro, long afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Join<Object, Object> usuario = (Join<Object, Object>) root.fetch("usuario", JoinType.INNER);
+            root.fetch("plan", JoinType.INNER);
+
+            predicates.add(cb.isNull(usuario.get("deletedAt")));
+            predicates.add(cb.greaterThan(root.get("id"), afterId));
+            // El id de la asociación se resuelve sobre la clave foránea de membresias (columna del índice)
+            if (filtro.getPlanId() != null) {
+                predicates.add(cb.equal(root.get("plan").get("id"), filtro.getPlanId()));
+            }
+            if (filtro.getUsuarioId() != null) {
+                predicates.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuarioId()));
+            }
+            if (filtro.getActiva() != null) {
+                predicates.add(cb.equal(root.get("activa"), filtro.getActiva()));
+            }
+            if (filtro.getFechaInicioDesde() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("fechaInicio"), filtro.getFechaInicioDesde()));
+            }
+            if (filtro.getFechaInicioHasta() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("fechaInicio"), filtro.getFechaInicioHasta()));
+            }
+            if (filtro.getFechaFinDesde() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("fechaFin"), filtro.getFechaFinDesde()));
+            }
+            if (filtro.getFechaFinHasta() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("fechaFin"), filtro.getFechaFinHasta()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.proyecto1spring.repository;
 
+import com.example.proyecto1spring.dto.PlanDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Plan;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +21,30 @@ public interface PlanRepository extends JpaRepository<Plan, Long> {
     Optional<Plan> findByNombre(String nombre);
     
     List<Plan> findByActivoTrue();
+
+    // Versiones para GET condicional: consultas de agregados, sin cargar la entidad
+    @Query("select new com.example.proyecto1spring.dto.VersionStamp(p.updatedAt) from Plan p where p.id = :id")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.example.proyecto1spring.dto.VersionStamp(count(p), max(p.updatedAt)) from Plan p")
+    VersionStamp findCatalogVersion();
     
     boolean existsByNombre(String nombre);
     
     boolean existsByNombreAndIdNot(String nombre, Long id);
+
+    @Query("select new com.example.proyecto1spring.dto.PlanDTO(p.id, p.nombre, p.descripcion, p.precio, p.duracionMeses, p.activo) "
+            + "from Plan p where p.id > :afterId order by p.id")
+    List<PlanDTO> findDTOPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.example.proyecto1spring.dto.PlanDTO(p.id, p.nombre, p.descripcion, p.precio, p.duracionMeses, p.activo) "
+            + "from Plan p where p.id = :id")
+    Optional<PlanDTO> findDTOById(@Param("id") Long id);
+
+    @Query("select p.id from Plan p where p.id in :ids and p.activo <> :activo")
+    List<Long> findIdsWithActivoNot(@Param("ids") Collection<Long> ids, @Param("activo") boolean activo);
+
+    @Modifying
+    @Query("update Plan p set p.activo = :activo, p.updatedAt = :now where p.id in :ids and p.activo <> :activo")
+    int updateActivo(@Param("ids") Collection<Long> ids, @Param("activo") boolean activo, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,36 @@
+package com.example.proyecto1spring.repository;
+
+import com.example.proyecto1spring.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("select r from RefreshToken r join fetch r.usuario where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUsuario(@Param("tokenHash") String tokenHash);
+
+    // Retorna 0 si otro request ya consumió el token (rotación concurrente)
+    @Modifying
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.usuario.id = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.usuario.id in :usuarioIds")
+    int deleteByUsuarioIdIn(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
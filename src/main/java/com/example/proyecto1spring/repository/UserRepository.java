@@ -1,12 +1,82 @@
 package com.example.proyecto1spring.repository;
 
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Usuario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     boolean existsByEmail(String email);
     boolean existsByRut(String rut);
+
+    // Proyecciones: construyen el DTO desde el result set, sin entidades gestionadas ni snapshots de dirty checking
+    @Query("select new com.example.proyecto1spring.dto.UsuarioDTO(u.id, u.nombre, u.apellido, u.email, u.rut, u.rol) "
+            + "from Usuario u where u.id > :afterId order by u.id")
+    List<UsuarioDTO> findDTOPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.example.proyecto1spring.dto.UsuarioDTO(u.id, u.nombre, u.apellido, u.email, u.rut, u.rol) "
+            + "from Usuario u where u.id = :id")
+    Optional<UsuarioDTO> findDTOById(@Param("id") Long id);
+
+    @Query("select new com.example.proyecto1spring.dto.VersionStamp(u.updateAt) from Usuario u where u.id = :id")
+    Optional<VersionStamp> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.example.proyecto1spring.dto.UsuarioDTO(u.id, u.nombre, u.apellido, u.email, u.rut, u.rol) "
+            + "from Usuario u where u.email = :email")
+    Optional<UsuarioDTO> findDTOByEmail(@Param("email") String email);
+
+    // Recorrido completo para exportación: cursor JDBC con fetch size y entidades de solo lectura (sin snapshot)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from Usuario u order by u.id")
+    Stream<Usuario> streamAllOrderById();
+
+    // Chequeo de duplicados por lote para la importación masiva: una consulta por bloque en vez de dos por fila
+    @Query("select u.email from Usuario u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.rut from Usuario u where u.rut in :ruts")
+    List<String> findExistingRuts(@Param("ruts") Collection<String> ruts);
+
+    // Operaciones masivas de administración
+    @Query("select u.id from Usuario u where (:rol is null or u.rol = :rol) and (:sinMembresiaActiva = false "
+            + "or not exists (select m.id from Membresia m where m.usuario = u and m.activa = true)) order by u.id")
+    List<Long> findIdsByFiltro(@Param("rol") String rol, @Param("sinMembresiaActiva") boolean sinMembresiaActiva);
+
+    @Query("select new com.example.proyecto1spring.dto.UsuarioDTO(u.id, u.nombre, u.apellido, u.email, u.rut, u.rol) "
+            + "from Usuario u where u.id in :ids and u.enabled <> :enabled")
+    List<UsuarioDTO> findDTOsWithEnabledNot(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled);
+
+    // Cambia el estado e invalida los tokens emitidos (security_version) en un solo UPDATE
+    @Modifying
+    @Query("update Usuario u set u.enabled = :enabled, u.securityVersion = coalesce(u.securityVersion, 0) + 1, "
+            + "u.updateAt = :now where u.id in :ids and u.enabled <> :enabled")
+    int updateEnabled(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled, @Param("now") Date now);
+
+    // Baja lógica: el purgador elimina después las filas dependientes y el usuario. Email y RUT se
+    // liberan de inmediato (son unique) para que puedan volver a registrarse antes de la purga
+    @Modifying
+    @Query("update Usuario u set u.deletedAt = :now, u.rut = null, "
+            + "u.email = concat('eliminado-', cast(u.id as String), '@eliminado.invalid') "
+            + "where u.id = :id and u.deletedAt is null")
+    int softDelete(@Param("id") Long id, @Param("now") Date now);
+
+    @Query("select coalesce(u.securityVersion, 0) from Usuario u where u.id = :id and u.enabled = true")
+    Optional<Integer> findSecurityVersionOfEnabledUser(@Param("id") Long id);
 }
@@ -7,6 +7,7 @@ import java.util.List;
 
 public interface AlumnoService {
     List<AlumnoResponse> findAll();
+    List<AlumnoResponse> findPage(long afterId, int limit);
     AlumnoResponse findById(Long id);
     AlumnoResponse create(AlumnoRequest request);
     AlumnoResponse update(Long id, AlumnoRequest request);
@@ -2,14 +2,21 @@ package com.example.proyecto1spring.service;
 
 import com.example.proyecto1spring.dto.AuthResponse;
 import com.example.proyecto1spring.dto.LoginRequest;
+import com.example.proyecto1spring.dto.RefreshRequest;
 import com.example.proyecto1spring.dto.RegisterRequest;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class AuthService {
@@ -18,23 +25,42 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenDenylist tokenDenylist;
+    private final SearchIndex searchIndex;
+    private final UniquenessFilter uniquenessFilter;
+    private final MemberViewService memberView;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        JwtService jwtService,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager,
+                       LoginThrottle loginThrottle,
+                       RefreshTokenService refreshTokenService,
+                       TokenDenylist tokenDenylist,
+                       SearchIndex searchIndex,
+                       UniquenessFilter uniquenessFilter,
+                       MemberViewService memberView) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.loginThrottle = loginThrottle;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenDenylist = tokenDenylist;
+        this.searchIndex = searchIndex;
+        this.uniquenessFilter = uniquenessFilter;
+        this.memberView = memberView;
     }
 
+    @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (request == null || request.getEmail() == null || request.getPassword() == null || request.getNombre() == null) {
             throw new IllegalArgumentException("Datos de registro incompletos");
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (uniquenessFilter.mightContainEmail(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("El email ya está registrado");
         }
 
@@ -45,19 +71,67 @@ public class AuthService {
         user.setRol("ALUMNO");
         user.setEnabled(true);
 
-        userRepository.save(user);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Registro concurrente con el mismo email: lo detecta la restricción unique
+            throw new IllegalArgumentException("El email ya está registrado");
+        }
+        uniquenessFilter.add(user.getEmail(), user.getRut());
+        memberView.refreshUsuario(user.getId());
+        searchIndex.indexUsuario(user.getId(), user.getNombre(), user.getApellido(), user.getEmail(), user.getRut());
 
-        String token = jwtService.generateToken(user);
-        return new AuthResponse(token);
+        return issueTokens(user);
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Se rechaza antes de cualquier consulta o comparación BCrypt
+        if (!loginThrottle.tryAcquire(request.getEmail(), clientIp)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Demasiados intentos de inicio de sesión");
+        }
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
         Usuario user = (Usuario) authentication.getPrincipal();
+        return issueTokens(user);
+    }
+
+    /**
+     * Renueva el access token a partir de un refresh token (que se rota). No hay comparación
+     * BCrypt: solo un lookup por hash del refresh token.
+     */
+    @Transactional
+    public AuthResponse refresh(RefreshRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Refresh token requerido");
+        }
+        Usuario user = refreshTokenService.consume(request.getRefreshToken());
+        return issueTokens(user);
+    }
+
+    /**
+     * Revoca el access token presentado (por su jti, hasta que expire) y el refresh token si viene.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtService.parseToken(accessToken);
+                // Sin exp el token nunca es aceptado: no hay nada que revocar
+                if (claims.getExpiration() != null) {
+                    tokenDenylist.revoke(claims.getId(), claims.getExpiration().getTime());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token inválido o expirado: no hay nada que revocar
+            }
+        }
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private AuthResponse issueTokens(Usuario user) {
         String token = jwtService.generateToken(user);
-        return new AuthResponse(token);
+        String refreshToken = refreshTokenService.issue(user);
+        return new AuthResponse(token, refreshToken);
     }
 }
@@ -0,0 +1,444 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.config.BoundedBCryptPasswordEncoder;
+import com.example.proyecto1spring.dto.ImportReport;
+import com.example.proyecto1spring.dto.ImportRow;
+import com.example.proyecto1spring.entity.Plan;
+import com.example.proyecto1spring.repository.PlanRepository;
+import com.example.proyecto1spring.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de usuarios con su membresía y horarios desde CSV o NDJSON.
+ * Las filas se procesan por bloques: duplicados verificados con una consulta IN por bloque,
+ * contraseñas hasheadas en paralelo sobre el pool acotado de BCrypt e inserts con batching JDBC,
+ * cada bloque en su propia transacción. Los errores se reportan por línea sin detener el resto.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final String DEFAULT_ROL = "ALUMNO";
+    private static final Set<String> ROLES = Set.of("ALUMNO", "USER", "ADMIN");
+
+    private static final String INSERT_USUARIO = "insert into usuarios "
+            + "(rut, nombre, apellido, password, email, rol, enabled, creat_at, update_at, security_version) "
+            + "values (?, ?, ?, ?, ?, ?, true, ?, ?, 0)";
+    private static final String INSERT_MEMBRESIA = "insert into membresias "
+            + "(usuario_id, activa_usuario_id, plan_id, fecha_inicio, fecha_fin, activa, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, true, ?, ?)";
+    private static final String INSERT_HORARIO = "insert into horarios_entrenamiento "
+            + "(membresia_id, dia_semana, hora_inicio, hora_fin, activo, created_at, updated_at) "
+            + "values (?, ?, ?, ?, true, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PlanRepository planRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SearchIndex searchIndex;
+    private final UniquenessFilter uniquenessFilter;
+    private final MemberViewService memberView;
+    private final int chunkSize;
+    private final int hashParallelism;
+
+    public BulkImportService(UserRepository userRepository, PlanRepository planRepository,
+                             PasswordEncoder passwordEncoder, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             SearchIndex searchIndex, UniquenessFilter uniquenessFilter,
+                             MemberViewService memberView,
+                             @Value("${app.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.import.hash-parallelism:2}") int hashParallelism) {
+        this.userRepository = userRepository;
+        this.planRepository = planRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.uniquenessFilter = uniquenessFilter;
+        this.memberView = memberView;
+        this.chunkSize = chunkSize;
+        this.hashParallelism = hashParallelism;
+    }
+
+    public ImportReport importCsv(BufferedReader reader) throws IOException {
+        return importRows(parseCsv(reader));
+    }
+
+    public ImportReport importNdjson(BufferedReader reader) throws IOException {
+        return importRows(parseNdjson(reader));
+    }
+
+    private ImportReport importRows(List<ParsedRow> parsed) {
+        ImportReport report = new ImportReport();
+        report.setTotal(parsed.size());
+
+        Map<String, Plan> planes = planRepository.findAll().stream()
+                .collect(Collectors.toMap(p -> p.getNombre().toLowerCase(Locale.ROOT), p -> p, (a, b) -> a));
+
+        // Validación local y duplicados dentro del mismo archivo
+        Set<String> emails = new HashSet<>();
+        Set<String> ruts = new HashSet<>();
+        List<ImportRow> valid = new ArrayList<>();
+        for (ParsedRow p : parsed) {
+            String error = p.error() != null ? p.error() : validate(p.row(), planes);
+            if (error == null && !emails.add(p.row().getEmail())) {
+                error = "Email repetido en el archivo";
+            }
+            if (error == null && p.row().getRut() != null && !ruts.add(p.row().getRut())) {
+                error = "RUT repetido en el archivo";
+            }
+            if (error != null) {
+                report.addError(p.row().getLinea(), p.row().getEmail(), error);
+            } else {
+                valid.add(p.row());
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            importChunk(valid.subList(from, Math.min(from + chunkSize, valid.size())), planes, report);
+        }
+        log.info("Importación masiva: {} de {} filas importadas, {} con error",
+                report.getImportados(), report.getTotal(), report.getErrores().size());
+        return report;
+    }
+
+    private void importChunk(List<ImportRow> chunk, Map<String, Plan> planes, ImportReport report) {
+        // Solo se consultan los valores que el filtro de Bloom no puede descartar
+        List<String> chunkEmails = chunk.stream().map(ImportRow::getEmail)
+                .filter(uniquenessFilter::mightContainEmail).toList();
+        Set<String> existingEmails = chunkEmails.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingEmails(chunkEmails));
+        List<String> chunkRuts = chunk.stream().map(ImportRow::getRut)
+                .filter(uniquenessFilter::mightContainRut).toList();
+        Set<String> existingRuts = chunkRuts.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingRuts(chunkRuts));
+
+        List<ImportRow> pending = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (existingEmails.contains(row.getEmail())) {
+                report.addError(row.getLinea(), row.getEmail(), "Email ya existe");
+            } else if (row.getRut() != null && existingRuts.contains(row.getRut())) {
+                report.addError(row.getLinea(), row.getEmail(), "RUT ya existe");
+            } else {
+                pending.add(row);
+            }
+        }
+
+        List<HashedRow> hashed = hashPasswords(pending, report);
+        if (hashed.isEmpty()) return;
+
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(status -> insertRows(hashed, planes));
+            indexImported(hashed, ids);
+            report.addImportados(hashed.size());
+        } catch (DataAccessException e) {
+            // Un bloque que falla (p. ej. un duplicado insertado en paralelo) se reintenta fila por fila para aislar el error
+            log.debug("Bloque de importación rechazado, reintentando por fila: {}", e.getMessage());
+            for (HashedRow row : hashed) {
+                try {
+                    Map<String, Long> ids = transactionTemplate.execute(status -> insertRows(List.of(row), planes));
+                    indexImported(List.of(row), ids);
+                    report.addImportados(1);
+                } catch (DataAccessException rowError) {
+                    report.addError(row.row().getLinea(), row.row().getEmail(), "No se pudo insertar: "
+                            + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashea en ventanas de {@code hashParallelism} para no ocupar todo el pool de BCrypt y dejar
+     * hilos libres para los logins concurrentes. Con el pool saturado el hash se calcula en este
+     * hilo, así que una fila solo falla si su contraseña no se puede procesar.
+     */
+    private List<HashedRow> hashPasswords(List<ImportRow> rows, ImportReport report) {
+        List<HashedRow> hashed = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += hashParallelism) {
+            List<ImportRow> window = rows.subList(from, Math.min(from + hashParallelism, rows.size()));
+            List<CompletableFuture<String>> futures = window.stream().map(this::encodeAsync).toList();
+            for (int i = 0; i < window.size(); i++) {
+                ImportRow row = window.get(i);
+                try {
+                    hashed.add(new HashedRow(row, futures.get(i).join()));
+                } catch (CompletionException e) {
+                    report.addError(row.getLinea(), row.getEmail(), "No se pudo procesar la contraseña");
+                }
+            }
+        }
+        return hashed;
+    }
+
+    private CompletableFuture<String> encodeAsync(ImportRow row) {
+        if (passwordEncoder instanceof BoundedBCryptPasswordEncoder bounded) {
+            return bounded.encodeAsync(row.getPassword());
+        }
+        try {
+            return CompletableFuture.completedFuture(passwordEncoder.encode(row.getPassword()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void indexImported(List<HashedRow> rows, Map<String, Long> ids) {
+        for (HashedRow r : rows) {
+            ImportRow row = r.row();
+            uniquenessFilter.add(row.getEmail(), row.getRut());
+            searchIndex.indexUsuario(ids.get(row.getEmail()), row.getNombre(), row.getApellido(), row.getEmail(), row.getRut());
+        }
+    }
+
+    /**
+     * Inserta el bloque y retorna los ids generados de los usuarios, por email.
+     */
+    private Map<String, Long> insertRows(List<HashedRow> rows, Map<String, Plan> planes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USUARIO, rows, rows.size(), (ps, r) -> {
+            ImportRow row = r.row();
+            ps.setString(1, row.getRut());
+            ps.setString(2, row.getNombre());
+            ps.setString(3, row.getApellido());
+            ps.setString(4, r.passwordHash());
+            ps.setString(5, row.getEmail());
+            ps.setString(6, row.getRol());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+
+        // Los ids generados se recuperan con una sola consulta por email en vez de depender de getGeneratedKeys en batch
+        Map<String, Long> userIds = new HashMap<>();
+        namedJdbcTemplate.query("select id, email from usuarios where email in (:emails)",
+                Map.of("emails", rows.stream().map(r -> r.row().getEmail()).toList()),
+                rs -> { userIds.put(rs.getString("email"), rs.getLong("id")); });
+
+        List<HashedRow> conPlan = rows.stream().filter(r -> r.row().getPlan() != null).toList();
+        if (conPlan.isEmpty()) {
+            memberView.refreshUsuarios(userIds.values());
+            return userIds;
+        }
+
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.batchUpdate(INSERT_MEMBRESIA, conPlan, conPlan.size(), (ps, r) -> {
+            ImportRow row = r.row();
+            Plan plan = planes.get(row.getPlan().toLowerCase(Locale.ROOT));
+            LocalDate inicio = row.getFechaInicio() != null ? row.getFechaInicio() : today;
+            Long usuarioId = userIds.get(row.getEmail());
+            ps.setLong(1, usuarioId);
+            ps.setLong(2, usuarioId);
+            ps.setLong(3, plan.getId());
+            ps.setObject(4, inicio);
+            ps.setObject(5, inicio.plusMonths(plan.getDuracionMeses()));
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+
+        // Usuarios y membresías ya están insertados: la vista se actualiza en la misma transacción
+        memberView.refreshUsuarios(userIds.values());
+
+        List<HashedRow> conHorarios = conPlan.stream().filter(r -> !r.row().getHorarios().isEmpty()).toList();
+        if (conHorarios.isEmpty()) return userIds;
+
+        // Usuarios recién creados: su única membresía es la insertada arriba
+        Map<Long, Long> membresiaIds = new HashMap<>();
+        namedJdbcTemplate.query("select id, usuario_id from membresias where usuario_id in (:ids)",
+                Map.of("ids", conHorarios.stream().map(r -> userIds.get(r.row().getEmail())).toList()),
+                rs -> { membresiaIds.put(rs.getLong("usuario_id"), rs.getLong("id")); });
+
+        List<Object[]> horarios = new ArrayList<>();
+        for (HashedRow r : conHorarios) {
+            Long membresiaId = membresiaIds.get(userIds.get(r.row().getEmail()));
+            for (ImportRow.Horario h : r.row().getHorarios()) {
+                horarios.add(new Object[]{membresiaId, h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin(), now, now});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_HORARIO, horarios);
+        return userIds;
+    }
+
+    private static String validate(ImportRow row, Map<String, Plan> planes) {
+        if (isBlank(row.getEmail())) return "Email es obligatorio";
+        if (isBlank(row.getPassword())) return "Password es obligatorio";
+        if (isBlank(row.getNombre())) return "Nombre es obligatorio";
+        if (!ROLES.contains(row.getRol())) return "Rol inválido: " + row.getRol();
+        if (row.getPlan() != null && !planes.containsKey(row.getPlan().toLowerCase(Locale.ROOT))) {
+            return "Plan no encontrado: " + row.getPlan();
+        }
+        if (!row.getHorarios().isEmpty() && row.getPlan() == null) {
+            return "Los horarios requieren un plan";
+        }
+        for (ImportRow.Horario h : row.getHorarios()) {
+            if (isBlank(h.getDiaSemana()) || isBlank(h.getHoraInicio()) || isBlank(h.getHoraFin())) {
+                return "Horario incompleto";
+            }
+        }
+        return null;
+    }
+
+    private static void normalize(ImportRow row) {
+        row.setEmail(trimToNull(row.getEmail()));
+        row.setRut(trimToNull(row.getRut()));
+        row.setPlan(trimToNull(row.getPlan()));
+        String rol = trimToNull(row.getRol());
+        row.setRol(rol == null ? DEFAULT_ROL : rol.toUpperCase(Locale.ROOT));
+    }
+
+    // ---- Lectura de la entrada ----
+
+    /**
+     * CSV con encabezado: rut,nombre,apellido,email,password,rol,plan,fecha_inicio,horarios.
+     * La columna horarios admite entradas "Lunes 18:00-19:30" separadas por ';'.
+     */
+    private List<ParsedRow> parseCsv(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) return List.of();
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<ParsedRow> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            List<String> values = splitCsvLine(line);
+            ImportRow row = new ImportRow();
+            row.setLinea(lineNumber);
+            row.setRut(column(values, columns, "rut"));
+            row.setNombre(column(values, columns, "nombre"));
+            row.setApellido(column(values, columns, "apellido"));
+            row.setEmail(column(values, columns, "email"));
+            row.setPassword(column(values, columns, "password"));
+            row.setRol(column(values, columns, "rol"));
+            row.setPlan(column(values, columns, "plan"));
+            String error = null;
+            try {
+                String fecha = trimToNull(column(values, columns, "fecha_inicio"));
+                row.setFechaInicio(fecha != null ? LocalDate.parse(fecha) : null);
+                row.setHorarios(parseHorarios(column(values, columns, "horarios")));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                error = "Formato inválido: " + e.getMessage();
+            }
+            normalize(row);
+            rows.add(new ParsedRow(row, error));
+        }
+        return rows;
+    }
+
+    private List<ParsedRow> parseNdjson(BufferedReader reader) throws IOException {
+        List<ParsedRow> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            ImportRow row;
+            String error = null;
+            try {
+                row = objectMapper.readValue(line, ImportRow.class);
+            } catch (IOException e) {
+                row = new ImportRow();
+                error = "JSON inválido";
+            }
+            row.setLinea(lineNumber);
+            normalize(row);
+            rows.add(new ParsedRow(row, error));
+        }
+        return rows;
+    }
+
+    private static List<ImportRow.Horario> parseHorarios(String value) {
+        List<ImportRow.Horario> horarios = new ArrayList<>();
+        if (isBlank(value)) return horarios;
+        for (String entry : value.split(";")) {
+            String[] dayAndRange = entry.trim().split("\\s+", 2);
+            String[] range = dayAndRange.length == 2 ? dayAndRange[1].split("-", 2) : new String[0];
+            if (range.length != 2) {
+                throw new IllegalArgumentException("horario '" + entry.trim() + "'");
+            }
+            horarios.add(new ImportRow.Horario(dayAndRange[0], range[0].trim(), range[1].trim()));
+        }
+        return horarios;
+    }
+
+    // RFC 4180 por línea: comillas dobles para campos con comas; "" dentro de comillas es una comilla literal
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String trimToNull(String value) {
+        return isBlank(value) ? null : value.trim();
+    }
+
+    private record ParsedRow(ImportRow row, String error) {
+    }
+
+    private record HashedRow(ImportRow row, String passwordHash) {
+    }
+}
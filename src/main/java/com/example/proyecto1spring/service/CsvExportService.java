@@ -0,0 +1,100 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.entity.Membresia;
+import com.example.proyecto1spring.entity.Usuario;
+import com.example.proyecto1spring.repository.MembresiaRepository;
+import com.example.proyecto1spring.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación CSV para administradores. Las filas se leen con un Stream de JPA y se escriben
+ * una a una; cada entidad se desacopla del contexto de persistencia tras escribirla, así el
+ * heap no crece con el número de filas exportadas.
+ */
+@Service
+public class CsvExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final UserRepository userRepository;
+    private final MembresiaRepository membresiaRepository;
+    private final EntityManager entityManager;
+
+    public CsvExportService(UserRepository userRepository, MembresiaRepository membresiaRepository,
+                            EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.membresiaRepository = membresiaRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public void writeAlumnos(Writer out) throws IOException {
+        out.write("id,rut,nombre,apellido,email,rol,enabled,creat_at\n");
+        try (Stream<Usuario> usuarios = userRepository.streamAllOrderById()) {
+            int rows = 0;
+            for (Iterator<Usuario> it = usuarios.iterator(); it.hasNext(); ) {
+                Usuario u = it.next();
+                writeRow(out, u.getId(), u.getRut(), u.getNombre(), u.getApellido(), u.getEmail(),
+                        u.getRol(), u.isEnabled(), u.getCreatAt());
+                entityManager.detach(u);
+                if (++rows % FLUSH_EVERY == 0) out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void writeMembresias(Writer out) throws IOException {
+        out.write("id,usuario_id,usuario_email,plan_id,plan_nombre,fecha_inicio,fecha_fin,activa\n");
+        try (Stream<Membresia> membresias = membresiaRepository.streamAllWithUsuarioAndPlan()) {
+            int rows = 0;
+            for (Iterator<Membresia> it = membresias.iterator(); it.hasNext(); ) {
+                Membresia m = it.next();
+                Usuario u = m.getUsuario();
+                writeRow(out, m.getId(), u.getId(), u.getEmail(), m.getPlan().getId(), m.getPlan().getNombre(),
+                        m.getFechaInicio(), m.getFechaFin(), m.getActiva());
+                // Los planes son pocos y se repiten entre filas; membresía y usuario se liberan
+                entityManager.detach(m);
+                entityManager.detach(u);
+                if (++rows % FLUSH_EVERY == 0) out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeRow(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            out.write(escape(values[i]));
+        }
+        out.write('\n');
+    }
+
+    // RFC 4180: se encierra entre comillas si contiene separador, comillas o saltos de línea.
+    // Un texto que empieza como fórmula (=, +, -, @, tab, CR) se prefija con ' y se cita, para que
+    // Excel/LibreOffice no lo evalúen; los números no se tocan (un negativo sigue siendo número)
+    private static String escape(Object value) {
+        if (value == null) return "";
+        String s = value.toString();
+        if (value instanceof CharSequence && isFormula(s)) {
+            return "\"'" + s.replace("\"", "\"\"") + '"';
+        }
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isFormula(String s) {
+        if (s.isEmpty()) return false;
+        char first = s.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
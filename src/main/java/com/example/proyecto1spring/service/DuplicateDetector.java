@@ -0,0 +1,258 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.dto.DuplicateCandidate;
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Detección de cuentas duplicadas (la misma persona registrada con otro email). Cada usuario se
+ * representa por los trigramas de su nombre normalizado, de la parte local del email y de su RUT
+ * sin formato; la firma MinHash de ese conjunto se divide en bandas (LSH) y solo se comparan los
+ * usuarios que coinciden en alguna banda, en vez de todos los pares. Las cuentas con el mismo RUT
+ * sin formato se emparejan siempre, con similitud 1,0. Los candidatos quedan publicados para que un
+ * administrador los revise.
+ */
+@Component
+public class DuplicateDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetector.class);
+
+    // 12 bandas de 4 filas: umbral de colisión cercano a una similitud de Jaccard de 0,54
+    private static final int BANDS = 12;
+    private static final int ROWS = 4;
+    private static final int SIGNATURE = BANDS * ROWS;
+    private static final int MAX_BUCKET = 100;
+    private static final int PAGE = 1000;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+    private static final long[] SEEDS = new long[SIGNATURE];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURE; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final double threshold;
+    private final int maxCandidates;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile List<DuplicateCandidate> candidates = List.of();
+
+    public DuplicateDetector(UserRepository userRepository,
+                             @Value("${app.duplicates.threshold:0.6}") double threshold,
+                             @Value("${app.duplicates.max-candidates:1000}") int maxCandidates) {
+        this.userRepository = userRepository;
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Últimos candidatos publicados, ordenados por similitud descendente.
+     */
+    public List<DuplicateCandidate> getCandidates() {
+        return candidates;
+    }
+
+    @Scheduled(initialDelayString = "${app.duplicates.initial-delay:60000}",
+               fixedDelayString = "${app.duplicates.interval:3600000}")
+    public void scheduledScan() {
+        scan();
+    }
+
+    /**
+     * Recalcula los candidatos. Retorna false si ya hay un escaneo en curso.
+     */
+    public boolean scan() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            List<UsuarioDTO> usuarios = loadUsuarios();
+            int[][] signatures = new int[usuarios.size()][];
+            String[] ruts = new String[usuarios.size()];
+            for (int i = 0; i < usuarios.size(); i++) {
+                UsuarioDTO u = usuarios.get(i);
+                ruts[i] = compactRut(u.getRut());
+                signatures[i] = signature(shingles(u, ruts[i]));
+            }
+
+            Set<Long> pairs = candidatePairs(signatures, ruts);
+            List<DuplicateCandidate> found = new ArrayList<>();
+            for (long pair : pairs) {
+                int a = (int) (pair >>> 32);
+                int b = (int) pair;
+                UsuarioDTO ua = usuarios.get(a);
+                UsuarioDTO ub = usuarios.get(b);
+                boolean sameRut = ruts[a] != null && ruts[a].equals(ruts[b]);
+                double similitud = sameRut ? 1.0 : estimate(signatures[a], signatures[b]);
+                if (similitud >= threshold) {
+                    found.add(new DuplicateCandidate(ua, ub, similitud, motivos(ua, ub, sameRut)));
+                }
+            }
+            found.sort(Comparator.comparingDouble(DuplicateCandidate::getSimilitud).reversed());
+            candidates = found.size() > maxCandidates ? List.copyOf(found.subList(0, maxCandidates)) : List.copyOf(found);
+            log.info("Detección de duplicados: {} usuarios, {} pares comparados, {} candidatos en {} ms",
+                    usuarios.size(), pairs.size(), found.size(), (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<UsuarioDTO> loadUsuarios() {
+        List<UsuarioDTO> usuarios = new ArrayList<>();
+        long lastId = 0;
+        List<UsuarioDTO> page;
+        do {
+            page = userRepository.findDTOPage(lastId, Limit.of(PAGE));
+            usuarios.addAll(page);
+            if (!page.isEmpty()) lastId = page.get(page.size() - 1).getId();
+        } while (page.size() == PAGE);
+        return usuarios;
+    }
+
+    // Pares (i, j) con i < j con el mismo RUT compacto o que comparten todas las filas de al menos una banda
+    private static Set<Long> candidatePairs(int[][] signatures, String[] ruts) {
+        Set<Long> pairs = new HashSet<>();
+        // Bucket exacto por RUT: es la señal más fuerte y no puede depender de que el azar de MinHash
+        // junte dos cuentas con nombre y email distintos
+        Map<String, List<Integer>> porRut = new HashMap<>();
+        for (int i = 0; i < ruts.length; i++) {
+            if (ruts[i] != null) porRut.computeIfAbsent(ruts[i], k -> new ArrayList<>(2)).add(i);
+        }
+        for (List<Integer> bucket : porRut.values()) {
+            addPairs(pairs, bucket);
+        }
+        for (int band = 0; band < BANDS; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < signatures.length; i++) {
+                long key = band;
+                for (int r = 0; r < ROWS; r++) {
+                    key = key * 31 + signatures[i][band * ROWS + r];
+                }
+                buckets.computeIfAbsent(mix(key), k -> new ArrayList<>(2)).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                // Un bucket enorme indica rasgos demasiado comunes, no una persona repetida
+                if (bucket.size() > MAX_BUCKET) continue;
+                addPairs(pairs, bucket);
+            }
+        }
+        return pairs;
+    }
+
+    // Los índices de cada bucket van en orden creciente, así que cada par queda como (menor, mayor)
+    private static void addPairs(Set<Long> pairs, List<Integer> bucket) {
+        for (int x = 0; x < bucket.size(); x++) {
+            for (int y = x + 1; y < bucket.size(); y++) {
+                pairs.add(((long) bucket.get(x) << 32) | bucket.get(y));
+            }
+        }
+    }
+
+    private static Set<String> shingles(UsuarioDTO u, String rut) {
+        Set<String> shingles = new HashSet<>();
+        String nombre = fullName(u);
+        addGrams(shingles, "n:", nombre);
+        if (u.getEmail() != null) {
+            int at = u.getEmail().indexOf('@');
+            addGrams(shingles, "e:", normalize(at > 0 ? u.getEmail().substring(0, at) : u.getEmail()));
+        }
+        if (rut != null) {
+            addGrams(shingles, "r:", rut);
+        }
+        return shingles;
+    }
+
+    private static void addGrams(Set<String> shingles, String prefix, String value) {
+        String compact = value.replace(" ", "");
+        if (compact.isEmpty()) return;
+        if (compact.length() < 3) {
+            shingles.add(prefix + compact);
+            return;
+        }
+        for (int i = 0; i + 3 <= compact.length(); i++) {
+            shingles.add(prefix + compact.substring(i, i + 3));
+        }
+    }
+
+    private static int[] signature(Set<String> shingles) {
+        int[] sig = new int[SIGNATURE];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long h = shingle.hashCode();
+            for (int i = 0; i < SIGNATURE; i++) {
+                int v = (int) (mix(h ^ SEEDS[i]) >>> 33);
+                if (v < sig[i]) sig[i] = v;
+            }
+        }
+        return sig;
+    }
+
+    private static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / SIGNATURE;
+    }
+
+    private static List<String> motivos(UsuarioDTO a, UsuarioDTO b, boolean sameRut) {
+        List<String> motivos = new ArrayList<>();
+        if (sameRut) motivos.add("RUT");
+        String nombreA = fullName(a);
+        if (!nombreA.isEmpty() && nombreA.equals(fullName(b))) motivos.add("NOMBRE");
+        String emailA = a.getEmail() != null ? normalize(a.getEmail().split("@", 2)[0]) : "";
+        String emailB = b.getEmail() != null ? normalize(b.getEmail().split("@", 2)[0]) : "";
+        if (!emailA.isEmpty() && emailA.equals(emailB)) motivos.add("EMAIL");
+        if (motivos.isEmpty()) motivos.add("SIMILITUD");
+        return motivos;
+    }
+
+    private static String fullName(UsuarioDTO u) {
+        return normalize((u.getNombre() != null ? u.getNombre() : "") + " " + (u.getApellido() != null ? u.getApellido() : ""));
+    }
+
+    private static String compactRut(String rut) {
+        if (rut == null) return null;
+        String compact = rut.toLowerCase(Locale.ROOT).replaceAll("[^0-9k]", "");
+        return compact.isEmpty() ? null : compact;
+    }
+
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALNUM.matcher(plain).replaceAll(" ").trim();
+    }
+
+    // Finalizador de SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -10,6 +10,8 @@ public interface HorarioEntrenamientoService {
     
     List<HorarioEntrenamiento> findAll();
 
+    List<HorarioEntrenamiento> findPage(long afterId, int limit);
+
     List<HorarioEntrenamiento> findByMembresia(Membresia membresia);
     
     HorarioEntrenamiento createHorario(Long membresiaId, String diaSemana, String horaInicio, String horaFin);
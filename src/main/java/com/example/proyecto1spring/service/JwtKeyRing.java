@@ -0,0 +1,150 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.config.JwtKeyProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claves de firma y verificación de JWT indexadas por {@code kid}. Todas las claves se decodifican
+ * una sola vez al arrancar; la verificación solo hace un lookup en memoria por el header del token.
+ * Sin {@code app.jwt.keys} configuradas se usa {@code app.jwt.secret} (HS256), igual que antes.
+ * Con claves configuradas el secreto heredado deja de firmar y solo verifica hasta
+ * {@code app.jwt.legacy-not-after}; sin esa fecha no se registra, así que queda retirado.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    static final String LEGACY_KID = "default";
+    // Valor de ejemplo que se publicó en application.yml: nunca debe llegar a firmar tokens
+    static final String PLACEHOLDER_SECRET = "change-this-secret-to-a-random-256-bit-value";
+
+    private final Map<String, RingKey> keysByKid;
+    private final List<RingKey> signingCandidates;
+    private final String activeKid;
+    // Clave usada para tokens emitidos antes de la rotación (sin header kid)
+    private final RingKey legacyKey;
+
+    public JwtKeyRing(JwtKeyProperties properties, @Value("${app.jwt.secret:}") String legacySecret) {
+        Map<String, RingKey> byKid = new HashMap<>();
+        for (JwtKeyProperties.Key config : properties.getKeys()) {
+            RingKey key = toRingKey(config);
+            if (byKid.put(key.kid, key) != null) {
+                throw new IllegalStateException("kid JWT duplicado: " + key.kid);
+            }
+        }
+        RingKey legacy = null;
+        boolean rotated = !byKid.isEmpty();
+        if (!rotated || properties.getLegacyNotAfter() != null) {
+            if (legacySecret == null || legacySecret.isBlank()) {
+                throw new IllegalStateException("Configure app.jwt.secret (JWT_SECRET) o app.jwt.keys");
+            }
+            if (PLACEHOLDER_SECRET.equals(legacySecret)) {
+                throw new IllegalStateException("app.jwt.secret tiene el valor de ejemplo; configure un secreto propio");
+            }
+            Key secret = Keys.hmacShaKeyFor(legacySecret.getBytes(StandardCharsets.UTF_8));
+            // Tras la rotación solo verifica (sin clave de firma) y con fecha de retiro
+            legacy = rotated
+                    ? new RingKey(LEGACY_KID, SignatureAlgorithm.HS256, null, secret, null, properties.getLegacyNotAfter())
+                    : new RingKey(LEGACY_KID, SignatureAlgorithm.HS256, secret, secret, null, null);
+            if (byKid.putIfAbsent(LEGACY_KID, legacy) != null) {
+                throw new IllegalStateException("El kid " + LEGACY_KID + " está reservado para app.jwt.secret");
+            }
+        }
+        this.keysByKid = Collections.unmodifiableMap(byKid);
+        this.legacyKey = legacy;
+        this.activeKid = properties.getActiveKid();
+
+        List<RingKey> candidates = new ArrayList<>();
+        for (RingKey key : byKid.values()) {
+            if (key.signingKey != null) candidates.add(key);
+        }
+        // Más recientes primero
+        candidates.sort(Comparator.comparing((RingKey k) -> k.notBefore == null ? Instant.MIN : k.notBefore).reversed());
+        this.signingCandidates = List.copyOf(candidates);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        RingKey key = kid != null ? keysByKid.get(kid) : legacyKey;
+        if (key == null || key.verificationKey == null) {
+            throw new JwtException("Clave JWT desconocida: " + kid);
+        }
+        if (!key.algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new JwtException("Algoritmo JWT no coincide con la clave " + key.kid);
+        }
+        if (key.notAfter != null && Instant.now().isAfter(key.notAfter)) {
+            throw new JwtException("Clave JWT retirada: " + key.kid);
+        }
+        return key.verificationKey;
+    }
+
+    /**
+     * Clave con la que se firman los tokens nuevos: la indicada en {@code app.jwt.active-kid}
+     * o, si no hay, la de {@code not-before} más reciente que ya esté vigente.
+     */
+    public RingKey signingKey() {
+        if (activeKid != null && !activeKid.isBlank()) {
+            RingKey key = keysByKid.get(activeKid);
+            if (key == null || key.signingKey == null) {
+                throw new IllegalStateException("No hay clave privada para el kid activo " + activeKid);
+            }
+            return key;
+        }
+        Instant now = Instant.now();
+        for (RingKey key : signingCandidates) {
+            boolean started = key.notBefore == null || !now.isBefore(key.notBefore);
+            boolean retired = key.notAfter != null && now.isAfter(key.notAfter);
+            if (started && !retired) {
+                return key;
+            }
+        }
+        throw new IllegalStateException("No hay ninguna clave JWT vigente para firmar");
+    }
+
+    private static RingKey toRingKey(JwtKeyProperties.Key config) {
+        if (config.getKid() == null || config.getKid().isBlank()) {
+            throw new IllegalStateException("Cada clave en app.jwt.keys necesita un kid");
+        }
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(config.getAlgorithm());
+        if (algorithm.isHmac()) {
+            Key secret = Keys.hmacShaKeyFor(config.getSecret().getBytes(StandardCharsets.UTF_8));
+            return new RingKey(config.getKid(), algorithm, secret, secret, config.getNotBefore(), config.getNotAfter());
+        }
+        try {
+            KeyFactory factory = KeyFactory.getInstance(algorithm.isEllipticCurve() ? "EC" : "RSA");
+            Key privateKey = config.getPrivateKey() == null ? null
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(config.getPrivateKey())));
+            Key publicKey = config.getPublicKey() == null ? null
+                    : factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(config.getPublicKey())));
+            return new RingKey(config.getKid(), algorithm, privateKey, publicKey, config.getNotBefore(), config.getNotAfter());
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Clave JWT inválida para kid " + config.getKid(), e);
+        }
+    }
+
+    public record RingKey(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey,
+                          Instant notBefore, Instant notAfter) {
+    }
+}
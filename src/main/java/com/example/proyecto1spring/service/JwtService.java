@@ -1,31 +1,51 @@
 package com.example.proyecto1spring.service;
 
+import com.example.proyecto1spring.entity.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    private final SecretKey secretKey;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROL = "rol";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+
+    private final JwtKeyRing keyRing;
     private final long expirationMs;
+    // JwtParser es inmutable y thread-safe: se construye una sola vez y se reutiliza
+    private final JwtParser jwtParser;
 
     public JwtService(
-            @Value("${app.jwt.secret}") String secret,
+            JwtKeyRing keyRing,
             @Value("${app.jwt.expiration}") long expirationMs
     ) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.keyRing = keyRing;
         this.expirationMs = expirationMs;
+        // La clave de verificación se resuelve por el header kid desde el llavero en memoria
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+    }
+
+    /**
+     * Verifica firma y expiración del token en una sola pasada y retorna sus claims.
+     * Lanza {@link JwtException} si el token es inválido, está mal formado o expiró.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
     }
 
     public String extractUsername(String token) {
@@ -38,40 +58,60 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(Map.of(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        // Claims que permiten reconstruir el principal sin consultar la base de datos
+        if (userDetails instanceof Usuario usuario) {
+            claims.put(CLAIM_USER_ID, usuario.getId());
+            claims.put(CLAIM_ROL, usuario.getRol());
+            claims.put(CLAIM_SECURITY_VERSION, usuario.getSecurityVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
+        JwtKeyRing.RingKey key = keyRing.signingKey();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                // jti: permite revocar este token puntualmente (logout, dispositivo robado)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .signWith(key.signingKey(), key.algorithm())
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return isTokenValid(claims, userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Valida claims ya verificados por {@link #parseToken(String)} sin volver a parsear el token.
+     * Una cuenta deshabilitada, bloqueada o expirada invalida sus tokens aunque no hayan expirado.
+     * Un token sin {@code exp} nunca es válido, aunque la firma sea correcta.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration() != null
+                && !claims.getExpiration().before(new Date())
+                && isAccountUsable(userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static boolean isAccountUsable(UserDetails userDetails) {
+        return userDetails.isEnabled()
+                && userDetails.isAccountNonLocked()
+                && userDetails.isAccountNonExpired()
+                && userDetails.isCredentialsNonExpired();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,113 @@
+package com.example.proyecto1spring.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita los intentos de login por email y por IP antes de tocar la base de datos o BCrypt.
+ * Cada clave es un token bucket en la forma GCRA: un único {@link AtomicLong} con el
+ * "tiempo teórico de llegada" que se actualiza por CAS, sin locks. Las claves se reparten en
+ * stripes con capacidad fija; al llenarse se descartan las entradas inactivas (bucket lleno) y, si
+ * no alcanza, la de menor tiempo teórico: la menos limitada. Así una avalancha de claves nuevas no
+ * puede desalojar (y reiniciar) el bucket de una cuenta que está siendo atacada.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 64;
+
+    private final Bucket emailBuckets;
+    private final Bucket ipBuckets;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public LoginThrottle(@Value("${app.security.login-throttle.email.burst:5}") int emailBurst,
+                         @Value("${app.security.login-throttle.email.refill-ms:12000}") long emailRefillMs,
+                         @Value("${app.security.login-throttle.ip.burst:20}") int ipBurst,
+                         @Value("${app.security.login-throttle.ip.refill-ms:1000}") long ipRefillMs,
+                         @Value("${app.security.login-throttle.max-entries:100000}") int maxEntries,
+                         MeterRegistry meterRegistry) {
+        this.emailBuckets = new Bucket(emailBurst, emailRefillMs, maxEntries);
+        this.ipBuckets = new Bucket(ipBurst, ipRefillMs, maxEntries);
+        this.allowed = Counter.builder("auth.login.throttle").tag("result", "allowed").register(meterRegistry);
+        this.rejected = Counter.builder("auth.login.throttle").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Consume un token de la IP y otro del email. Retorna false si cualquiera de los dos está agotado.
+     */
+    public boolean tryAcquire(String email, String clientIp) {
+        return tryAcquire(email, clientIp, System.nanoTime());
+    }
+
+    boolean tryAcquire(String email, String clientIp, long now) {
+        boolean ok = (clientIp == null || ipBuckets.tryAcquire(clientIp, now))
+                && (email == null || emailBuckets.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now));
+        (ok ? allowed : rejected).increment();
+        return ok;
+    }
+
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final int maxPerStripe;
+        @SuppressWarnings("unchecked")
+        private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+
+        Bucket(int burst, long refillMs, int maxEntries) {
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(refillMs);
+            this.burstNanos = intervalNanos * burst;
+            this.maxPerStripe = Math.max(1, maxEntries / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        boolean tryAcquire(String key, long now) {
+            ConcurrentHashMap<String, AtomicLong> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+            AtomicLong tat = stripe.get(key);
+            if (tat == null) {
+                if (stripe.size() >= maxPerStripe) {
+                    evict(stripe, now);
+                }
+                tat = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = tat.get();
+                long base = Math.max(current, now);
+                long next = base + intervalNanos;
+                // Se permite mientras el atraso acumulado no supere la ráfaga configurada
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private void evict(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+            // Un bucket cuyo tiempo teórico ya pasó está lleno: equivale a no tener entrada
+            stripe.values().removeIf(tat -> tat.get() - now <= 0);
+            while (stripe.size() >= maxPerStripe) {
+                // Nunca una entrada arbitraria: la de menor TAT es la que menos tokens ha consumido
+                Map.Entry<String, AtomicLong> menosLimitada = null;
+                for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+                    if (menosLimitada == null || entry.getValue().get() - menosLimitada.getValue().get() < 0) {
+                        menosLimitada = entry;
+                    }
+                }
+                if (menosLimitada == null) return;
+                stripe.remove(menosLimitada.getKey(), menosLimitada.getValue());
+            }
+        }
+    }
+}
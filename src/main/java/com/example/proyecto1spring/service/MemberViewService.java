@@ -0,0 +1,138 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.entity.AdminMemberView;
+import com.example.proyecto1spring.repository.AdminMemberViewRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Mantiene la tabla {@code admin_member_view}: una fila por usuario con su membresía activa y el
+ * nombre del plan, para que el listado de alumnos sea un único SELECT ordenado sobre una tabla.
+ * Cada escritura de usuarios o membresías llama a {@link #refreshUsuarios} dentro de su propia
+ * transacción; la fila se recalcula con DELETE + INSERT ... SELECT, así que la vista nunca queda
+ * adelantada ni atrasada respecto del commit. Los refrescos del mismo usuario se serializan con
+ * un bloqueo de su fila en {@code usuarios}; sin él, dos transacciones podrían borrar a la vez y
+ * chocar al insertar la misma {@code usuario_id}.
+ */
+@Service
+public class MemberViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberViewService.class);
+
+    private static final int IN_CHUNK = 1000;
+    private static final Set<String> SORTABLE = Set.of(
+            "id", "rut", "nombre", "apellido", "email", "rol", "enabled", "planNombre", "fechaFin", "estado");
+
+    // Si hubiera más de una membresía activa se toma la más reciente
+    private static final String INSERT_SELECT = "insert into admin_member_view "
+            + "(usuario_id, rut, nombre, apellido, email, rol, enabled, membresia_id, plan_id, plan_nombre, "
+            + "fecha_inicio, fecha_fin, estado, updated_at) "
+            + "select u.id, u.rut, u.nombre, u.apellido, u.email, u.rol, u.enabled, m.id, p.id, p.nombre, "
+            + "m.fecha_inicio, m.fecha_fin, "
+            + "case when m.id is null then '" + AdminMemberView.SIN_MEMBRESIA + "' "
+            + "when m.fecha_fin < current_date then '" + AdminMemberView.VENCIDA + "' "
+            + "else '" + AdminMemberView.ACTIVA + "' end, current_timestamp "
+            + "from usuarios u "
+            + "left join membresias m on m.id = (select max(m2.id) from membresias m2 "
+            + "where m2.usuario_id = u.id and m2.activa = true) "
+            + "left join planes p on p.id = m.plan_id "
+            + "where u.deleted_at is null";
+
+    private final AdminMemberViewRepository repository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public MemberViewService(AdminMemberViewRepository repository) {
+        this.repository = repository;
+    }
+
+    public List<AdminMemberView> findAll(String sort, String dir) {
+        String property = sort != null && SORTABLE.contains(sort) ? sort : "id";
+        Sort.Direction direction = "desc".equalsIgnoreCase(dir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        if (!"id".equals(property)) {
+            order = order.and(Sort.by("id"));
+        }
+        return repository.findAll(order);
+    }
+
+    /**
+     * Recalcula las filas de los usuarios indicados. Los usuarios eliminados quedan fuera de la vista.
+     */
+    @Transactional
+    public void refreshUsuarios(Collection<Long> usuarioIds) {
+        if (usuarioIds == null || usuarioIds.isEmpty()) return;
+        // Los cambios pendientes de la sesión deben llegar a la base antes del INSERT ... SELECT
+        entityManager.flush();
+        // Orden ascendente: todas las transacciones toman los bloqueos en el mismo orden y no se cruzan
+        List<Long> ids = new ArrayList<>(new TreeSet<>(usuarioIds));
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+            entityManager.createNativeQuery("select id from usuarios where id in (:ids) order by id for update")
+                    .setParameter("ids", chunk)
+                    .getResultList();
+            entityManager.createNativeQuery("delete from admin_member_view where usuario_id in (:ids)")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+            entityManager.createNativeQuery(INSERT_SELECT + " and u.id in (:ids)")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+    }
+
+    @Transactional
+    public void refreshUsuario(Long usuarioId) {
+        if (usuarioId != null) refreshUsuarios(List.of(usuarioId));
+    }
+
+    /**
+     * Propaga el cambio de nombre de un plan a las filas que lo muestran.
+     */
+    @Transactional
+    public void refreshPlan(Long planId, String nombre) {
+        if (planId == null) return;
+        entityManager.createNativeQuery("update admin_member_view set plan_nombre = :nombre where plan_id = :planId")
+                .setParameter("nombre", nombre)
+                .setParameter("planId", planId)
+                .executeUpdate();
+    }
+
+    /**
+     * Reconstrucción completa al arrancar: cubre los datos cargados por DataLoader o data.sql y
+     * cualquier desfase previo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        entityManager.createNativeQuery("delete from admin_member_view").executeUpdate();
+        int rows = entityManager.createNativeQuery(INSERT_SELECT).executeUpdate();
+        log.info("Vista de alumnos reconstruida con {} filas", rows);
+    }
+
+    // El estado depende de la fecha: una vez al día se marcan las membresías que vencieron
+    @Scheduled(cron = "${app.member-view.expiry-cron:0 5 0 * * *}")
+    @Transactional
+    public void markExpired() {
+        int rows = entityManager.createNativeQuery("update admin_member_view set estado = '" + AdminMemberView.VENCIDA
+                        + "' where estado = '" + AdminMemberView.ACTIVA + "' and fecha_fin < current_date")
+                .executeUpdate();
+        if (rows > 0) {
+            log.info("{} membresías marcadas como vencidas en la vista de alumnos", rows);
+        }
+    }
+}
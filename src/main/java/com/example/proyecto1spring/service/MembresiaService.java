@@ -1,5 +1,9 @@
 package com.example.proyecto1spring.service;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.MembresiaDTO;
+import com.example.proyecto1spring.dto.MembresiaFiltro;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.entity.Usuario;
 
@@ -9,6 +13,18 @@ import java.util.Optional;
 public interface MembresiaService {
     
     List<Membresia> findAll();
+
+    List<MembresiaDTO> findPage(long afterId, int limit);
+
+    List<MembresiaDTO> search(MembresiaFiltro filtro, long afterId, int limit);
+
+    Optional<MembresiaDTO> findDTOById(Long id);
+
+    Optional<VersionStamp> findVersion(Long id);
+
+    Optional<VersionStamp> findHorariosVersion(Long membresiaId);
+
+    Optional<MembresiaDTO> findActiveDTOByUsuarioId(Long usuarioId);
     
     List<Membresia> findActiveMembresias();
     
@@ -19,6 +35,9 @@ public interface MembresiaService {
     List<Membresia> findByUsuario(Usuario usuario);
     
     Membresia createMembresia(Long usuarioId, Long planId);
+
+    // Asigna el plan a varios usuarios en una transacción; omite los inexistentes y los que ya tienen membresía activa
+    BulkResult createMembresias(List<Long> usuarioIds, Long planId);
     
     Membresia changePlan(Long membresiaId, Long nuevoPlanId);
     
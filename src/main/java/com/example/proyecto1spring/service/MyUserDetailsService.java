@@ -3,17 +3,21 @@ package com.example.proyecto1spring.service;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public MyUserDetailsService(UserRepository userRepository) {
+    public MyUserDetailsService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -22,4 +26,19 @@ public class MyUserDetailsService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
         return user;
     }
+
+    /**
+     * Llamado por DaoAuthenticationProvider tras un login exitoso cuando el hash guardado usa
+     * un costo BCrypt distinto al configurado; la contraseña no cambia, solo su hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + user.getUsername()));
+        usuario.setPassword(newPassword);
+        Usuario saved = userRepository.save(usuario);
+        principalCache.evict(saved.getEmail());
+        return saved;
+    }
 }
@@ -0,0 +1,133 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.dto.PlanDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
+import com.example.proyecto1spring.repository.PlanRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Catálogo de planes en memoria. El catálogo cambia muy pocas veces, así que se guarda una foto
+ * inmutable con todos los planes, los activos y el JSON ya serializado de {@code /api/planes}; las
+ * lecturas no consultan la base de datos ni pasan por Jackson. PlanService pide la reconstrucción
+ * tras el commit de cada cambio y la foto nueva reemplaza a la anterior de una sola vez. Los cambios
+ * hechos en otros nodos se detectan comparando periódicamente la versión del catálogo en la base.
+ */
+@Component
+public class PlanCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanCatalog.class);
+
+    private final PlanRepository planRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public PlanCatalog(PlanRepository planRepository, ObjectMapper objectMapper) {
+        this.planRepository = planRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Todos los planes, ordenados por id.
+     */
+    public List<PlanDTO> getPlanes() {
+        return current().planes();
+    }
+
+    public List<PlanDTO> getActivos() {
+        return current().activos();
+    }
+
+    /**
+     * JSON de {@link #getPlanes()} tal como lo responde {@code /api/planes}. No se debe modificar.
+     */
+    public byte[] getJson() {
+        return current().json();
+    }
+
+    public int size() {
+        return current().planes().size();
+    }
+
+    /**
+     * Versión del catálogo (cantidad de planes y última modificación) para el ETag de {@code /api/planes}.
+     */
+    public VersionStamp getVersion() {
+        return current().version();
+    }
+
+    /**
+     * Reconstruye la foto tras el commit de la transacción en curso, o de inmediato si no hay una.
+     */
+    public void refresh() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Consulta solo la versión (cantidad y última modificación) y reconstruye si no coincide con la
+     * de la foto: así un cambio de plan en otro nodo llega a este en un {@code sync-interval}.
+     */
+    @Scheduled(fixedDelayString = "${app.plan-catalog.sync-interval:30000}")
+    public void syncWithDatabase() {
+        Snapshot s = snapshot;
+        if (s == null) return;
+        VersionStamp db = planRepository.findCatalogVersion();
+        if (db.getCount() != s.version().getCount() || db.getLastModified() != s.version().getLastModified()) {
+            log.debug("Catálogo de planes desactualizado respecto de la base, reconstruyendo");
+            rebuild();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            rebuild();
+            s = snapshot;
+        }
+        return s;
+    }
+
+    // Serializado: la última reconstrucción en ejecutarse lee el estado más reciente
+    private synchronized void rebuild() {
+        VersionStamp version = planRepository.findCatalogVersion();
+        List<PlanDTO> planes = List.copyOf(planRepository.findDTOPage(0L, Limit.unlimited()));
+        List<PlanDTO> activos = planes.stream().filter(p -> Boolean.TRUE.equals(p.getActivo())).toList();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(planes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo de planes", e);
+        }
+        snapshot = new Snapshot(planes, activos, json, version);
+        log.debug("Catálogo de planes reconstruido: {} planes, {} activos", planes.size(), activos.size());
+    }
+
+    private record Snapshot(List<PlanDTO> planes, List<PlanDTO> activos, byte[] json, VersionStamp version) {
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.proyecto1spring.service;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.PlanDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Plan;
 
 import java.util.List;
@@ -8,8 +11,14 @@ import java.util.Optional;
 public interface PlanService {
     
     List<Plan> findAll();
+
+    List<PlanDTO> findPage(long afterId, int limit);
+
+    Optional<PlanDTO> findDTOById(Long id);
+
+    Optional<VersionStamp> findVersion(Long id);
     
-    List<Plan> findActivePlans();
+    List<PlanDTO> findActivePlans();
     
     Optional<Plan> findById(Long id);
     
@@ -23,5 +32,7 @@ public interface PlanService {
     
     void toggleActive(Long id);
 
+    BulkResult setActiveBulk(List<Long> ids, boolean activo);
+
     Plan save(Plan plan);
 }
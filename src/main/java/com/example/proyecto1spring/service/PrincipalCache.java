@@ -0,0 +1,111 @@
+package com.example.proyecto1spring.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache acotada y con expiración de los principals que usa {@code JwtAuthFilter},
+ * indexada por email. Evita un {@code findByEmail} por cada request autenticado.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${app.security.principal-cache.ttl:300000}") long ttlMs,
+                          MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+
+        FunctionCounter.builder("security.principal.cache", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Principals servidos desde la cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Principals cargados desde la base de datos")
+                .register(meterRegistry);
+        FunctionCounter.builder("security.principal.cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.principal;
+        }
+        misses.increment();
+        UserDetails principal = loader.apply(email);
+        if (entries.size() >= maxSize) {
+            purge(now);
+        }
+        entries.put(email, new Entry(principal, now + ttlMs));
+        return principal;
+    }
+
+    /**
+     * Elimina la entrada de inmediato y, si hay una transacción activa, de nuevo tras el commit
+     * para que un request concurrente no vuelva a cachear el estado anterior.
+     */
+    public void evict(String email) {
+        if (email == null) return;
+        entries.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(email);
+                }
+            });
+        }
+        evictions.increment();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void purge(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        // Si sigue llena, se descartan entradas arbitrarias hasta liberar espacio
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry(UserDetails principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.entity.RefreshToken;
+import com.example.proyecto1spring.entity.Usuario;
+import com.example.proyecto1spring.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Refresh tokens opacos y rotativos. Solo se guarda el SHA-256 del token, indexado por hash,
+ * de modo que renovar un access token es un lookup por clave y nunca toca la contraseña.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpirationMs;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-expiration}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /**
+     * Emite un refresh token nuevo para el usuario y retorna su valor en claro.
+     */
+    @Transactional
+    public String issue(Usuario usuario) {
+        Objects.requireNonNull(usuario, "Usuario no puede ser null");
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000L);
+        refreshTokenRepository.save(new RefreshToken(hash(raw), usuario, expiresAt));
+        return raw;
+    }
+
+    /**
+     * Consume el refresh token (uso único) y retorna su usuario. Lanza IllegalArgumentException
+     * si no existe, expiró, ya fue usado o la cuenta está deshabilitada.
+     */
+    @Transactional
+    public Usuario consume(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new IllegalArgumentException("Refresh token requerido");
+        }
+        String tokenHash = hash(rawToken);
+        RefreshToken token = refreshTokenRepository.findByTokenHashWithUsuario(tokenHash)
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token inválido"));
+        // El delete condicional hace la rotación atómica frente a dos refresh simultáneos
+        if (refreshTokenRepository.deleteByTokenHash(tokenHash) == 0 || token.isExpired()) {
+            throw new IllegalArgumentException("Refresh token inválido");
+        }
+        Usuario usuario = token.getUsuario();
+        if (!usuario.isEnabled()) {
+            throw new IllegalArgumentException("Cuenta deshabilitada");
+        }
+        return usuario;
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return;
+        refreshTokenRepository.deleteByTokenHash(hash(rawToken));
+    }
+
+    @Transactional
+    public void revokeAll(Long usuarioId) {
+        Objects.requireNonNull(usuarioId, "Usuario ID no puede ser null");
+        refreshTokenRepository.deleteByUsuarioId(usuarioId);
+    }
+
+    @Transactional
+    public void revokeAll(Collection<Long> usuarioIds) {
+        if (usuarioIds == null || usuarioIds.isEmpty()) return;
+        refreshTokenRepository.deleteByUsuarioIdIn(usuarioIds);
+    }
+
+    // Limpieza por rango sobre el índice de expires_at
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.debug("{} refresh tokens expirados eliminados", removed);
+        }
+    }
+
+    private static String hash(String raw) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.dto.PlanDTO;
+import com.example.proyecto1spring.dto.SearchResult;
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.entity.Alumno;
+import com.example.proyecto1spring.repository.AlumnoRepository;
+import com.example.proyecto1spring.repository.PlanRepository;
+import com.example.proyecto1spring.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de búsqueda en memoria para las pantallas de administración: usuarios (nombre, apellido,
+ * email, rut), planes y alumnos. Cada token se indexa por trigramas y por sus prefijos de 1 y 2
+ * caracteres; una consulta intersecta las listas más cortas primero y verifica los candidatos contra
+ * los tokens del documento, sin tocar la base de datos. Se carga al arrancar y los servicios lo
+ * actualizan tras el commit de cada alta, modificación o baja.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    public enum Tipo { USUARIO, PLAN, ALUMNO }
+
+    private static final int GRAM = 3;
+    private static final int SEED_PAGE = 1000;
+    private static final int MAX_LIMIT = 50;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final UserRepository userRepository;
+    private final PlanRepository planRepository;
+    private final AlumnoRepository alumnoRepository;
+
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    public SearchIndex(UserRepository userRepository, PlanRepository planRepository, AlumnoRepository alumnoRepository) {
+        this.userRepository = userRepository;
+        this.planRepository = planRepository;
+        this.alumnoRepository = alumnoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long start = System.nanoTime();
+        long lastId = 0;
+        List<UsuarioDTO> usuarios;
+        do {
+            usuarios = userRepository.findDTOPage(lastId, Limit.of(SEED_PAGE));
+            for (UsuarioDTO u : usuarios) {
+                putUsuario(u.getId(), u.getNombre(), u.getApellido(), u.getEmail(), u.getRut());
+                lastId = u.getId();
+            }
+        } while (usuarios.size() == SEED_PAGE);
+
+        lastId = 0;
+        List<PlanDTO> planes;
+        do {
+            planes = planRepository.findDTOPage(lastId, Limit.of(SEED_PAGE));
+            for (PlanDTO p : planes) {
+                putPlan(p.getId(), p.getNombre(), p.getDescripcion());
+                lastId = p.getId();
+            }
+        } while (planes.size() == SEED_PAGE);
+
+        lastId = 0;
+        List<Alumno> alumnos;
+        do {
+            alumnos = alumnoRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(SEED_PAGE));
+            for (Alumno a : alumnos) {
+                putAlumno(a.getId(), a.getNombre(), a.getNivel() != null ? a.getNivel().name() : null);
+                lastId = a.getId();
+            }
+        } while (alumnos.size() == SEED_PAGE);
+
+        log.info("Índice de búsqueda cargado: {} documentos, {} términos en {} ms",
+                docs.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ---- Actualización incremental (se aplica tras el commit si hay transacción activa) ----
+
+    public void indexUsuario(Long id, String nombre, String apellido, String email, String rut) {
+        afterCommit(() -> putUsuario(id, nombre, apellido, email, rut));
+    }
+
+    public void indexPlan(Long id, String nombre, String descripcion) {
+        afterCommit(() -> putPlan(id, nombre, descripcion));
+    }
+
+    public void indexAlumno(Long id, String nombre, String nivel) {
+        afterCommit(() -> putAlumno(id, nombre, nivel));
+    }
+
+    public void remove(Tipo tipo, Long id) {
+        if (id == null) return;
+        afterCommit(() -> {
+            synchronized (writeLock) {
+                unindex(key(tipo, id));
+            }
+        });
+    }
+
+    // ---- Consulta ----
+
+    public List<SearchResult> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) return List.of();
+
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            Set<Long> matches = candidatesFor(term);
+            if (matches.isEmpty()) return List.of();
+            if (candidates == null) {
+                candidates = new LinkedHashSet<>(matches);
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) return List.of();
+        }
+
+        List<SearchResult> results = new ArrayList<>();
+        for (Long key : candidates) {
+            Doc doc = docs.get(key);
+            if (doc == null) continue;
+            int score = score(doc, terms);
+            if (score > 0) {
+                results.add(new SearchResult(doc.tipo().name(), doc.id(), doc.titulo(), doc.detalle(), score));
+            }
+        }
+        results.sort(Comparator.comparingInt(SearchResult::getScore).reversed()
+                .thenComparingInt(r -> r.getTitulo() == null ? 0 : r.getTitulo().length())
+                .thenComparing(SearchResult::getId));
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return results.size() > max ? new ArrayList<>(results.subList(0, max)) : results;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Intersección de las listas de trigramas, empezando por la más corta
+    private Set<Long> candidatesFor(String term) {
+        if (term.length() < GRAM) {
+            return postings.getOrDefault("^" + term, Set.of());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Set<Long> list = postings.get(term.substring(i, i + GRAM));
+            if (list == null) return Set.of();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new LinkedHashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    // Coincidencia exacta > prefijo > subcadena; cada término de la consulta debe aparecer en el documento
+    private static int score(Doc doc, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String token : doc.tokens()) {
+                if (token.equals(term)) {
+                    best = 3;
+                    break;
+                }
+                if (token.startsWith(term)) {
+                    best = Math.max(best, 2);
+                } else if (best == 0 && token.contains(term)) {
+                    best = 1;
+                }
+            }
+            if (best == 0) return 0;
+            total += best;
+        }
+        return total;
+    }
+
+    // ---- Escritura ----
+
+    private void putUsuario(Long id, String nombre, String apellido, String email, String rut) {
+        String titulo = ((nombre != null ? nombre : "") + " " + (apellido != null ? apellido : "")).trim();
+        List<String> tokens = tokenize(nombre, apellido, email, rut);
+        if (rut != null) {
+            // El RUT también se indexa sin puntos ni guion para buscarlo como "12345678"
+            String compact = normalize(rut).replaceAll("[^0-9k]", "");
+            if (!compact.isEmpty() && !tokens.contains(compact)) tokens.add(compact);
+        }
+        put(new Doc(Tipo.USUARIO, id, titulo, email, tokens));
+    }
+
+    private void putPlan(Long id, String nombre, String descripcion) {
+        put(new Doc(Tipo.PLAN, id, nombre, descripcion, tokenize(nombre)));
+    }
+
+    private void putAlumno(Long id, String nombre, String nivel) {
+        put(new Doc(Tipo.ALUMNO, id, nombre, nivel, tokenize(nombre)));
+    }
+
+    private void put(Doc doc) {
+        if (doc.id() == null) return;
+        long key = key(doc.tipo(), doc.id());
+        synchronized (writeLock) {
+            unindex(key);
+            docs.put(key, doc);
+            for (String gram : grams(doc.tokens())) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    private void unindex(long key) {
+        Doc previous = docs.remove(key);
+        if (previous == null) return;
+        for (String gram : grams(previous.tokens())) {
+            Set<Long> list = postings.get(gram);
+            if (list != null) {
+                list.remove(key);
+                if (list.isEmpty()) postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(List<String> tokens) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokens) {
+            for (int len = 1; len < GRAM && len <= token.length(); len++) {
+                grams.add("^" + token.substring(0, len));
+            }
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                grams.add(token.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> tokenize(String... values) {
+        List<String> tokens = new ArrayList<>();
+        for (String value : values) {
+            if (value == null) continue;
+            for (String token : SEPARATORS.split(normalize(value))) {
+                if (!token.isEmpty() && !tokens.contains(token)) tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long key(Tipo tipo, long id) {
+        return ((long) tipo.ordinal() << 56) | id;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Doc(Tipo tipo, Long id, String titulo, String detalle, List<String> tokens) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.entity.Usuario;
+import com.example.proyecto1spring.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versión de seguridad vigente por usuario, usada para revocar tokens en el modo de principal
+ * basado en claims. Se mantiene en memoria y se refresca desde la base de datos cada
+ * {@code app.jwt.security-version-ttl} ms, lo que acota el desfase entre nodos.
+ */
+@Component
+public class SecurityVersionRegistry {
+
+    // Versión que nunca coincide: usuario deshabilitado o inexistente
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final Map<Long, Entry> versions = new ConcurrentHashMap<>();
+
+    public SecurityVersionRegistry(UserRepository userRepository,
+                                   @Value("${app.jwt.security-version-ttl:60000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null || tokenVersion == null) return false;
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry == null || entry.loadedAt + ttlMs < now) {
+            int current = userRepository.findSecurityVersionOfEnabledUser(userId).orElse(REVOKED);
+            entry = new Entry(current, now);
+            versions.put(userId, entry);
+        }
+        return entry.version != REVOKED && entry.version == tokenVersion;
+    }
+
+    /**
+     * Incrementa la versión del usuario (los tokens ya emitidos dejan de ser válidos) y
+     * descarta la versión cacheada una vez confirmada la transacción.
+     */
+    public void bump(Usuario usuario) {
+        usuario.bumpSecurityVersion();
+        invalidate(usuario.getId());
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) return;
+        versions.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.remove(userId);
+                }
+            });
+        }
+    }
+
+    private record Entry(int version, long loadedAt) {
+    }
+}
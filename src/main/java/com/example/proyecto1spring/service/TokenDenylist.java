@@ -0,0 +1,110 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.entity.DeniedToken;
+import com.example.proyecto1spring.repository.DeniedTokenRepository;
+import com.example.proyecto1spring.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de JWT revocados por jti. Cada entrada vive hasta que expira el token revocado.
+ * Las revocaciones se guardan en {@code denied_tokens} para sobrevivir reinicios y llegar a los
+ * demás nodos: el mapa en memoria y el filtro de Bloom se reconstruyen desde la tabla al arrancar
+ * y en cada {@code rebuild-interval}. El filtro responde el caso común ("no revocado") sin tocar
+ * el mapa ni la base de datos.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final DeniedTokenRepository deniedTokenRepository;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile BloomFilter filter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile int filterCapacity = MIN_CAPACITY;
+
+    public TokenDenylist(DeniedTokenRepository deniedTokenRepository,
+                         @Value("${app.jwt.denylist.initial-capacity:1024}") int initialCapacity) {
+        this.deniedTokenRepository = deniedTokenRepository;
+        if (initialCapacity > MIN_CAPACITY) {
+            this.filter = new BloomFilter(initialCapacity, FALSE_POSITIVE_RATE);
+            this.filterCapacity = initialCapacity;
+        }
+    }
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) return;
+        // Primero la tabla: si falla, el logout falla en vez de revocar solo en este nodo
+        deniedTokenRepository.save(new DeniedToken(jti, toDateTime(expiresAtMillis)));
+        synchronized (writeLock) {
+            revoked.put(jti, expiresAtMillis);
+            filter.put(jti);
+            // Si se supera la capacidad prevista, se reconstruye con más espacio para mantener la tasa de falsos positivos
+            if (revoked.size() > filterCapacity) {
+                rebuildLocked();
+            }
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Borra de la tabla las revocaciones expiradas, incorpora las vigentes (incluidas las de otros
+     * nodos) y reconstruye el filtro. Las entradas locales se conservan: ya están en la tabla.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.denylist.rebuild-interval:60000}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        deniedTokenRepository.deleteExpired(now);
+        List<DeniedToken> vigentes = deniedTokenRepository.findByExpiresAtAfter(now);
+        synchronized (writeLock) {
+            for (DeniedToken denied : vigentes) {
+                revoked.put(denied.getJti(), toMillis(denied.getExpiresAt()));
+            }
+            rebuildLocked();
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void rebuildLocked() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int capacity = Math.max(MIN_CAPACITY, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        filterCapacity = capacity;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
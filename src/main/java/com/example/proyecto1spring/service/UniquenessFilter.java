@@ -0,0 +1,131 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.repository.UserRepository;
+import com.example.proyecto1spring.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-chequeo probabilístico de unicidad de email y RUT. Un "no está" del filtro de Bloom es
+ * definitivo y permite omitir el {@code existsBy...}; un "quizás" se confirma contra la base de datos.
+ * Las restricciones unique de la tabla siguen siendo la garantía final. Hasta terminar la carga
+ * inicial el filtro responde siempre "quizás".
+ */
+@Component
+public class UniquenessFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UniquenessFilter.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int SEED_PAGE = 1000;
+
+    private final UserRepository userRepository;
+    private final Object writeLock = new Object();
+    private final AtomicInteger insertions = new AtomicInteger();
+    private final Counter skipped;
+    private final Counter checked;
+
+    private volatile BloomFilter emails;
+    private volatile BloomFilter ruts;
+    private volatile int capacity;
+    private volatile boolean seeded;
+
+    public UniquenessFilter(UserRepository userRepository,
+                            @Value("${app.security.uniqueness-filter.expected-insertions:100000}") int expectedInsertions,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.capacity = expectedInsertions;
+        this.emails = new BloomFilter(expectedInsertions, FALSE_POSITIVE_RATE);
+        this.ruts = new BloomFilter(expectedInsertions, FALSE_POSITIVE_RATE);
+        this.skipped = Counter.builder("security.uniqueness.filter").tag("result", "skipped")
+                .description("Chequeos de unicidad resueltos sin consultar la base de datos")
+                .register(meterRegistry);
+        this.checked = Counter.builder("security.uniqueness.filter").tag("result", "checked")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        synchronized (writeLock) {
+            load(emails, ruts);
+            seeded = true;
+            if (insertions.get() > capacity) {
+                rebuildLocked(insertions.get() * 2);
+            }
+        }
+        log.info("Filtro de unicidad cargado con {} usuarios", insertions.get());
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(emails, email);
+    }
+
+    public boolean mightContainRut(String rut) {
+        return mightContain(ruts, rut);
+    }
+
+    /**
+     * Registra los valores de un usuario creado o modificado. Agregar antes del commit es seguro:
+     * a lo más produce un "quizás" de más.
+     */
+    public void add(String email, String rut) {
+        synchronized (writeLock) {
+            // Superada la capacidad, la tasa de falsos positivos sube: se reconstruye con el doble
+            if (insertions.incrementAndGet() > capacity && seeded) {
+                rebuildLocked(capacity * 2);
+            }
+            // Después de una posible reconstrucción, para no perder un valor aún sin commit
+            if (email != null) emails.put(email);
+            if (rut != null) ruts.put(rut);
+        }
+    }
+
+    private boolean mightContain(BloomFilter filter, String value) {
+        if (value == null) {
+            return false;
+        }
+        if (seeded && !filter.mightContain(value)) {
+            skipped.increment();
+            return false;
+        }
+        checked.increment();
+        return true;
+    }
+
+    private void rebuildLocked(int newCapacity) {
+        BloomFilter newEmails = new BloomFilter(newCapacity, FALSE_POSITIVE_RATE);
+        BloomFilter newRuts = new BloomFilter(newCapacity, FALSE_POSITIVE_RATE);
+        load(newEmails, newRuts);
+        emails = newEmails;
+        ruts = newRuts;
+        capacity = newCapacity;
+        log.info("Filtro de unicidad reconstruido con capacidad {}", newCapacity);
+    }
+
+    private void load(BloomFilter emailFilter, BloomFilter rutFilter) {
+        int count = 0;
+        long lastId = 0;
+        List<UsuarioDTO> page;
+        do {
+            page = userRepository.findDTOPage(lastId, Limit.of(SEED_PAGE));
+            for (UsuarioDTO u : page) {
+                if (u.getEmail() != null) emailFilter.put(u.getEmail());
+                if (u.getRut() != null) rutFilter.put(u.getRut());
+                lastId = u.getId();
+            }
+            count += page.size();
+        } while (page.size() == SEED_PAGE);
+        insertions.set(count);
+    }
+}
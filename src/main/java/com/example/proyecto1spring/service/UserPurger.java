@@ -0,0 +1,89 @@
+package com.example.proyecto1spring.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elimina en segundo plano los usuarios dados de baja y sus datos. Procesa lotes acotados de
+ * usuarios, cada uno en su propia transacción, con DELETE por conjunto en orden de dependencias:
+ * horarios, membresías, refresh tokens y finalmente el usuario. Usa SQL directo porque los usuarios
+ * eliminados ya no son visibles para JPA. Si un lote falla se reintenta usuario por usuario, así
+ * una fila problemática se registra y se salta sin frenar la purga de los demás.
+ */
+@Component
+public class UserPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPurger.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public UserPurger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                      @Value("${app.purge.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.interval:30000}")
+    public void purge() {
+        int total = 0;
+        long lastId = 0;
+        List<Long> ids;
+        do {
+            // Keyset por id: un usuario que no se pudo eliminar no vuelve a encabezar el siguiente lote
+            ids = jdbcTemplate.queryForList("select id from usuarios where deleted_at is not null and id > ? "
+                    + "order by id limit ?", Long.class, lastId, batchSize);
+            if (ids.isEmpty()) break;
+            total += purgeOrSplit(ids);
+            lastId = ids.get(ids.size() - 1);
+        } while (ids.size() == batchSize);
+        if (total > 0) {
+            log.info("{} usuarios eliminados definitivamente", total);
+        }
+    }
+
+    private int purgeOrSplit(List<Long> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> purgeBatch(batch));
+            return batch.size();
+        } catch (DataAccessException e) {
+            log.warn("Falló la purga de un lote de {} usuarios, reintentando uno por uno: {}",
+                    batch.size(), e.getMostSpecificCause().getMessage());
+        }
+        int purged = 0;
+        for (Long id : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> purgeBatch(List.of(id)));
+                purged++;
+            } catch (DataAccessException e) {
+                log.error("No se pudo purgar el usuario {}; se reintentará en la próxima ejecución", id, e);
+            }
+        }
+        return purged;
+    }
+
+    private void purgeBatch(List<Long> usuarioIds) {
+        Map<String, Object> params = Map.of("ids", usuarioIds);
+        namedJdbcTemplate.update("delete from horarios_entrenamiento where membresia_id in "
+                + "(select m.id from membresias m where m.usuario_id in (:ids))", params);
+        namedJdbcTemplate.update("delete from membresias where usuario_id in (:ids)", params);
+        namedJdbcTemplate.update("delete from refresh_tokens where usuario_id in (:ids)", params);
+        namedJdbcTemplate.update("delete from admin_member_view where usuario_id in (:ids)", params);
+        namedJdbcTemplate.update("delete from usuarios where id in (:ids) and deleted_at is not null", params);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.proyecto1spring.service;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Usuario;
 
 import java.util.List;
@@ -8,10 +11,20 @@ import java.util.Optional;
 public interface UserService {
     Usuario createUser(Usuario user, String roleName);
     List<Usuario> findAll();
+    // Página keyset: hasta {@code limit} usuarios con id mayor a {@code afterId}, ordenados por id
+    List<UsuarioDTO> findPage(long afterId, int limit);
     Optional<Usuario> findById(Long id);
+    // Lecturas de solo consulta: proyectan directo a DTO sin cargar la entidad
+    Optional<UsuarioDTO> findDTOById(Long id);
+    Optional<VersionStamp> findVersion(Long id);
+    Optional<UsuarioDTO> findDTOByEmail(String email);
     void deleteById(Long id);
     Optional<Usuario> findByEmail(String email);
     Usuario toggleEnabled(Long id);
+    // Habilita o deshabilita en bloque por ids o por filtro (rol, sin membresía activa) con UPDATE por conjunto
+    BulkResult setEnabledBulk(List<Long> ids, String rol, Boolean sinMembresiaActiva, boolean enabled);
     Usuario updateUser(Long id, Usuario user);
     Usuario findByEmailAsUsuario(String email);
+    // Entidad completa del usuario autenticado (carga desde la BD si el principal viene de los claims del token)
+    Usuario resolvePrincipal(Usuario principal);
 }
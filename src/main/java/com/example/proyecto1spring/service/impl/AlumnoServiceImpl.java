@@ -5,6 +5,8 @@ import com.example.proyecto1spring.dto.AlumnoResponse;
 import com.example.proyecto1spring.entity.Alumno;
 import com.example.proyecto1spring.repository.AlumnoRepository;
 import com.example.proyecto1spring.service.AlumnoService;
+import com.example.proyecto1spring.service.SearchIndex;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -16,9 +18,11 @@ import java.util.List;
 public class AlumnoServiceImpl implements AlumnoService {
 
     private final AlumnoRepository alumnoRepository;
+    private final SearchIndex searchIndex;
 
-    public AlumnoServiceImpl(AlumnoRepository alumnoRepository) {
+    public AlumnoServiceImpl(AlumnoRepository alumnoRepository, SearchIndex searchIndex) {
         this.alumnoRepository = alumnoRepository;
+        this.searchIndex = searchIndex;
     }
 
     @Override
@@ -26,6 +30,12 @@ public class AlumnoServiceImpl implements AlumnoService {
         return alumnoRepository.findAll().stream().map(AlumnoResponse::new).toList();
     }
 
+    @Override
+    public List<AlumnoResponse> findPage(long afterId, int limit) {
+        return alumnoRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(AlumnoResponse::new).toList();
+    }
+
     @Override
     public AlumnoResponse findById(Long id) {
         Alumno alumno = alumnoRepository.findById(id)
@@ -43,6 +53,7 @@ public class AlumnoServiceImpl implements AlumnoService {
         alumno.setLatitud(request.getLatitud());
         alumno.setLongitud(request.getLongitud());
         Alumno saved = alumnoRepository.save(alumno);
+        indexAlumno(saved);
         return new AlumnoResponse(saved);
     }
 
@@ -57,6 +68,7 @@ public class AlumnoServiceImpl implements AlumnoService {
         alumno.setLatitud(request.getLatitud());
         alumno.setLongitud(request.getLongitud());
         Alumno saved = alumnoRepository.save(alumno);
+        indexAlumno(saved);
         return new AlumnoResponse(saved);
     }
 
@@ -67,5 +79,11 @@ public class AlumnoServiceImpl implements AlumnoService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Alumno no encontrado");
         }
         alumnoRepository.deleteById(id);
+        searchIndex.remove(SearchIndex.Tipo.ALUMNO, id);
+    }
+
+    private void indexAlumno(Alumno alumno) {
+        searchIndex.indexAlumno(alumno.getId(), alumno.getNombre(),
+                alumno.getNivel() != null ? alumno.getNivel().name() : null);
     }
 }
@@ -6,6 +6,7 @@ import com.example.proyecto1spring.repository.HorarioEntrenamientoRepository;
 import com.example.proyecto1spring.repository.MembresiaRepository;
 import com.example.proyecto1spring.service.HorarioEntrenamientoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -70,6 +71,11 @@ public class HorarioEntrenamientoServiceImpl implements HorarioEntrenamientoServ
         return horarioRepository.findAll();
     }
 
+    @Override
+    public List<HorarioEntrenamiento> findPage(long afterId, int limit) {
+        return horarioRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
     @Override
     public java.util.Optional<HorarioEntrenamiento> findById(Long id) {
         Objects.requireNonNull(id, "ID no puede ser null");
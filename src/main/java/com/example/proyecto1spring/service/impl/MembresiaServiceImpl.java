@@ -1,35 +1,58 @@
 package com.example.proyecto1spring.service.impl;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.MembresiaDTO;
+import com.example.proyecto1spring.dto.MembresiaFiltro;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Membresia;
 import com.example.proyecto1spring.entity.Plan;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.repository.MembresiaRepository;
+import com.example.proyecto1spring.repository.MembresiaSpecs;
 import com.example.proyecto1spring.repository.PlanRepository;
 import com.example.proyecto1spring.repository.UserRepository;
 import com.example.proyecto1spring.service.MembresiaService;
+import com.example.proyecto1spring.service.MemberViewService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class MembresiaServiceImpl implements MembresiaService {
 
+    private static final int IN_CHUNK = 1000;
+
     private final MembresiaRepository membresiaRepository;
     private final UserRepository userRepository;
     private final PlanRepository planRepository;
+    private final MemberViewService memberView;
 
     @Autowired
     public MembresiaServiceImpl(MembresiaRepository membresiaRepository, 
                                  UserRepository userRepository,
-                                 PlanRepository planRepository) {
+                                 PlanRepository planRepository,
+                                 MemberViewService memberView) {
         this.membresiaRepository = membresiaRepository;
         this.userRepository = userRepository;
         this.planRepository = planRepository;
+        this.memberView = memberView;
     }
 
     @Override
@@ -37,6 +60,48 @@ public class MembresiaServiceImpl implements MembresiaService {
         return membresiaRepository.findAll();
     }
 
+    @Override
+    public List<MembresiaDTO> findPage(long afterId, int limit) {
+        return membresiaRepository.findDTOPage(afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MembresiaDTO> search(MembresiaFiltro filtro, long afterId, int limit) {
+        Objects.requireNonNull(filtro, "Filtro no puede ser null");
+        if (isAfter(filtro.getFechaInicioDesde(), filtro.getFechaInicioHasta())
+                || isAfter(filtro.getFechaFinDesde(), filtro.getFechaFinHasta())) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+        List<Membresia> membresias = membresiaRepository.findBy(MembresiaSpecs.search(filtro, afterId),
+                q -> q.sortBy(Sort.by("id")).limit(limit).all());
+        return membresias.stream().map(MembresiaServiceImpl::toDTO).toList();
+    }
+
+    @Override
+    public Optional<MembresiaDTO> findDTOById(Long id) {
+        Objects.requireNonNull(id, "ID no puede ser null");
+        return membresiaRepository.findDTOById(id);
+    }
+
+    @Override
+    public Optional<VersionStamp> findVersion(Long id) {
+        Objects.requireNonNull(id, "ID no puede ser null");
+        return membresiaRepository.findVersionById(id);
+    }
+
+    @Override
+    public Optional<VersionStamp> findHorariosVersion(Long membresiaId) {
+        Objects.requireNonNull(membresiaId, "Membresía ID no puede ser null");
+        return membresiaRepository.findHorariosVersion(membresiaId);
+    }
+
+    @Override
+    public Optional<MembresiaDTO> findActiveDTOByUsuarioId(Long usuarioId) {
+        Objects.requireNonNull(usuarioId, "Usuario ID no puede ser null");
+        return membresiaRepository.findActiveDTOByUsuarioId(usuarioId);
+    }
+
     @Override
     public List<Membresia> findActiveMembresias() {
         return membresiaRepository.findByActivaTrue();
@@ -72,15 +137,53 @@ public class MembresiaServiceImpl implements MembresiaService {
         Plan plan = planRepository.findById(planId)
                 .orElseThrow(() -> new IllegalArgumentException("Plan no encontrado"));
         
-        if (membresiaRepository.existsByUsuarioAndActivaTrue(usuario)) {
-            throw new IllegalArgumentException("El usuario ya tiene una membresía activa");
-        }
-        
+        // Sin consultar antes si ya hay una activa: el INSERT falla por la restricción unique si otra
+        // solicitud (doble toque, /inscripcion y la API a la vez) la creó primero
         LocalDate fechaInicio = LocalDate.now();
         LocalDate fechaFin = fechaInicio.plusMonths(plan.getDuracionMeses());
         
         Membresia membresia = new Membresia(usuario, plan, fechaInicio, fechaFin);
-        return membresiaRepository.save(membresia);
+        return refreshed(saveUnique(membresia));
+    }
+
+    @Override
+    @Transactional
+    public BulkResult createMembresias(List<Long> usuarioIds, Long planId) {
+        if (planId == null || usuarioIds == null || usuarioIds.isEmpty()) {
+            throw new IllegalArgumentException("Indique el plan y los usuarios");
+        }
+        Plan plan = planRepository.findById(planId)
+                .orElseThrow(() -> new IllegalArgumentException("Plan no encontrado"));
+
+        LocalDate fechaInicio = LocalDate.now();
+        LocalDate fechaFin = fechaInicio.plusMonths(plan.getDuracionMeses());
+        List<Long> target = new ArrayList<>(new LinkedHashSet<>(usuarioIds));
+        List<Membresia> nuevas = new ArrayList<>();
+        List<Long> omitidos = new ArrayList<>();
+        // Dos consultas por bloque (usuarios y membresías activas) en vez de tres por usuario
+        for (int from = 0; from < target.size(); from += IN_CHUNK) {
+            List<Long> chunk = target.subList(from, Math.min(from + IN_CHUNK, target.size()));
+            Map<Long, Usuario> usuarios = userRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(Usuario::getId, Function.identity()));
+            Set<Long> conActiva = new HashSet<>(membresiaRepository.findUsuarioIdsWithActiveMembresia(chunk));
+            for (Long id : chunk) {
+                Usuario usuario = usuarios.get(id);
+                if (usuario == null || conActiva.contains(id)) {
+                    omitidos.add(id);
+                } else {
+                    nuevas.add(new Membresia(usuario, plan, fechaInicio, fechaFin));
+                }
+            }
+        }
+        // La consulta previa solo arma la lista de omitidos; si una membresía se creó entretanto, la restricción lo detecta
+        try {
+            membresiaRepository.saveAllAndFlush(nuevas);
+        } catch (DataIntegrityViolationException e) {
+            if (!isActivaDuplicada(e)) throw e;
+            throw new IllegalArgumentException("Otro proceso creó una membresía activa para alguno de los usuarios; reintente");
+        }
+        memberView.refreshUsuarios(nuevas.stream().map(m -> m.getUsuario().getId()).toList());
+        return new BulkResult(nuevas.size(), omitidos);
     }
 
     @Override
@@ -107,7 +210,7 @@ public class MembresiaServiceImpl implements MembresiaService {
         membresia.setFechaInicio(nuevaFechaInicio);
         membresia.setFechaFin(nuevaFechaFin);
         
-        return membresiaRepository.save(membresia);
+        return refreshed(membresiaRepository.save(membresia));
     }
 
     @Override
@@ -119,7 +222,7 @@ public class MembresiaServiceImpl implements MembresiaService {
                 .orElseThrow(() -> new IllegalArgumentException("Membresía no encontrada"));
         
         membresia.setActiva(false);
-        membresiaRepository.save(membresia);
+        refreshed(membresiaRepository.save(membresia));
     }
 
     @Override
@@ -129,15 +232,61 @@ public class MembresiaServiceImpl implements MembresiaService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         Objects.requireNonNull(id, "ID no puede ser null");
-        membresiaRepository.deleteById(id);
+        membresiaRepository.findById(id).ifPresent(membresia -> {
+            membresiaRepository.delete(membresia);
+            memberView.refreshUsuario(membresia.getUsuario().getId());
+        });
     }
 
     @Override
+    @Transactional
     public Membresia save(Membresia membresia) {
         Objects.requireNonNull(membresia, "Membresía no puede ser null");
-        return membresiaRepository.save(membresia);
+        return refreshed(saveUnique(membresia));
+    }
+
+    /**
+     * Guarda con flush para que la restricción de una membresía activa por usuario se reporte aquí
+     * como error de validación y no al hacer commit.
+     */
+    private Membresia saveUnique(Membresia membresia) {
+        try {
+            return membresiaRepository.saveAndFlush(membresia);
+        } catch (DataIntegrityViolationException e) {
+            if (!isActivaDuplicada(e)) throw e;
+            throw new IllegalArgumentException("El usuario ya tiene una membresía activa");
+        }
+    }
+
+    /**
+     * Solo la restricción de membresía activa única se traduce a error de validación; cualquier otra
+     * violación (FK, not null, etc.) se propaga tal cual.
+     */
+    private static boolean isActivaDuplicada(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException cve
+                && cve.getConstraintName() != null
+                && cve.getConstraintName().toLowerCase(Locale.ROOT).contains(Membresia.UK_ACTIVA_USUARIO);
+    }
+
+    private static boolean isAfter(LocalDate desde, LocalDate hasta) {
+        return desde != null && hasta != null && desde.isAfter(hasta);
+    }
+
+    private static MembresiaDTO toDTO(Membresia m) {
+        return new MembresiaDTO(m.getId(), m.getUsuario().getId(),
+                m.getUsuario().getNombre() + " " + m.getUsuario().getApellido(), m.getUsuario().getEmail(),
+                m.getPlan().getId(), m.getPlan().getNombre(), m.getFechaInicio(), m.getFechaFin(), m.getActiva());
+    }
+
+    // Mantiene la vista del listado de administración en la misma transacción
+    private Membresia refreshed(Membresia membresia) {
+        if (membresia.getUsuario() != null) {
+            memberView.refreshUsuario(membresia.getUsuario().getId());
+        }
+        return membresia;
     }
 
     @Override
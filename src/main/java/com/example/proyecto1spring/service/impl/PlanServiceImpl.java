@@ -1,12 +1,22 @@
 package com.example.proyecto1spring.service.impl;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.PlanDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Plan;
 import com.example.proyecto1spring.repository.PlanRepository;
+import com.example.proyecto1spring.service.MemberViewService;
+import com.example.proyecto1spring.service.PlanCatalog;
 import com.example.proyecto1spring.service.PlanService;
+import com.example.proyecto1spring.service.SearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -15,10 +25,17 @@ import java.util.Optional;
 public class PlanServiceImpl implements PlanService {
 
     private final PlanRepository planRepository;
+    private final SearchIndex searchIndex;
+    private final MemberViewService memberView;
+    private final PlanCatalog planCatalog;
 
     @Autowired
-    public PlanServiceImpl(PlanRepository planRepository) {
+    public PlanServiceImpl(PlanRepository planRepository, SearchIndex searchIndex, MemberViewService memberView,
+                           PlanCatalog planCatalog) {
         this.planRepository = planRepository;
+        this.searchIndex = searchIndex;
+        this.memberView = memberView;
+        this.planCatalog = planCatalog;
     }
 
     @Override
@@ -27,8 +44,26 @@ public class PlanServiceImpl implements PlanService {
     }
 
     @Override
-    public List<Plan> findActivePlans() {
-        return planRepository.findByActivoTrue();
+    public List<PlanDTO> findPage(long afterId, int limit) {
+        return planRepository.findDTOPage(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<PlanDTO> findDTOById(Long id) {
+        Objects.requireNonNull(id, "ID no puede ser null");
+        return planRepository.findDTOById(id);
+    }
+
+    @Override
+    public Optional<VersionStamp> findVersion(Long id) {
+        Objects.requireNonNull(id, "ID no puede ser null");
+        return planRepository.findVersionById(id);
+    }
+
+    @Override
+    public List<PlanDTO> findActivePlans() {
+        // Se sirve desde la foto en memoria: /inscripcion y /mi-plan no consultan la base
+        return planCatalog.getActivos();
     }
 
     @Override
@@ -46,7 +81,7 @@ public class PlanServiceImpl implements PlanService {
             throw new IllegalArgumentException("Ya existe un plan con ese nombre");
         }
         
-        return planRepository.save(plan);
+        return indexed(planRepository.save(plan));
     }
 
     @Override
@@ -68,7 +103,7 @@ public class PlanServiceImpl implements PlanService {
         existingPlan.setDuracionMeses(plan.getDuracionMeses());
         existingPlan.setActivo(plan.getActivo());
         
-        return planRepository.save(existingPlan);
+        return indexed(planRepository.save(existingPlan));
     }
 
     @Override
@@ -81,6 +116,8 @@ public class PlanServiceImpl implements PlanService {
         }
         
         planRepository.deleteById(id);
+        searchIndex.remove(SearchIndex.Tipo.PLAN, id);
+        planCatalog.refresh();
     }
 
     @Override
@@ -93,6 +130,23 @@ public class PlanServiceImpl implements PlanService {
         
         plan.setActivo(!plan.getActivo());
         planRepository.save(plan);
+        planCatalog.refresh();
+    }
+
+    @Override
+    @Transactional
+    public BulkResult setActiveBulk(List<Long> ids, boolean activo) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Indique los ids de los planes");
+        }
+        List<Long> target = List.copyOf(new LinkedHashSet<>(ids));
+        List<Long> cambiar = planRepository.findIdsWithActivoNot(target, activo);
+        int afectados = cambiar.isEmpty() ? 0 : planRepository.updateActivo(cambiar, activo, LocalDateTime.now());
+        if (afectados > 0) {
+            planCatalog.refresh();
+        }
+        HashSet<Long> cambiados = new HashSet<>(cambiar);
+        return new BulkResult(afectados, target.stream().filter(id -> !cambiados.contains(id)).toList());
     }
 
     @Override
@@ -103,6 +157,14 @@ public class PlanServiceImpl implements PlanService {
     @Override
     public Plan save(Plan plan) {
         Objects.requireNonNull(plan, "Plan no puede ser null");
-        return planRepository.save(plan);
+        return indexed(planRepository.save(plan));
+    }
+
+    private Plan indexed(Plan plan) {
+        searchIndex.indexPlan(plan.getId(), plan.getNombre(), plan.getDescripcion());
+        // El listado de alumnos muestra el nombre del plan
+        memberView.refreshPlan(plan.getId(), plan.getNombre());
+        planCatalog.refresh();
+        return plan;
     }
 }
@@ -1,41 +1,79 @@
 package com.example.proyecto1spring.service.impl;
 
+import com.example.proyecto1spring.dto.BulkResult;
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.dto.VersionStamp;
 import com.example.proyecto1spring.entity.Usuario;
 import com.example.proyecto1spring.repository.UserRepository;
+import com.example.proyecto1spring.service.MemberViewService;
+import com.example.proyecto1spring.service.PrincipalCache;
+import com.example.proyecto1spring.service.RefreshTokenService;
+import com.example.proyecto1spring.service.SearchIndex;
+import com.example.proyecto1spring.service.SecurityVersionRegistry;
+import com.example.proyecto1spring.service.UniquenessFilter;
 import com.example.proyecto1spring.service.UserService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserServiceImpl implements UserService {
+
+    // Tamaño máximo de las listas IN en las operaciones masivas
+    private static final int IN_CHUNK = 1000;
     //implements es para heredar metodos de una interfaz, donde se usan los metodos tales como estan definidos en la interfaz
     //tags de anotaciones de springboot como: @Service indican que esta clase es un servicio gestionado por el contenedor de springboot
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final SecurityVersionRegistry securityVersions;
+    private final RefreshTokenService refreshTokenService;
+    private final SearchIndex searchIndex;
+    private final UniquenessFilter uniquenessFilter;
+    private final MemberViewService memberView;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           PrincipalCache principalCache, SecurityVersionRegistry securityVersions,
+                           RefreshTokenService refreshTokenService, SearchIndex searchIndex,
+                           UniquenessFilter uniquenessFilter, MemberViewService memberView) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.securityVersions = securityVersions;
+        this.refreshTokenService = refreshTokenService;
+        this.searchIndex = searchIndex;
+        this.uniquenessFilter = uniquenessFilter;
+        this.memberView = memberView;
     }
 
     @Override
     @Transactional
     public Usuario createUser(Usuario user, String roleName) {
         java.util.Objects.requireNonNull(user, "user no puede ser nulo");
-        if (userRepository.existsByEmail(user.getEmail())) {
+        // El filtro de Bloom descarta sin consulta los valores que con certeza no existen
+        if (uniquenessFilter.mightContainEmail(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("Email ya existe");
         }
-        if (userRepository.existsByRut(user.getRut())) {
+        if (uniquenessFilter.mightContainRut(user.getRut()) && userRepository.existsByRut(user.getRut())) {
             throw new IllegalArgumentException("RUT ya existe");
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRol(roleName);
-        return userRepository.save(user);
+        Usuario saved = saveUnique(user);
+        memberView.refreshUsuario(saved.getId());
+        searchIndex.indexUsuario(saved.getId(), saved.getNombre(), saved.getApellido(), saved.getEmail(), saved.getRut());
+        return saved;
     }
 
     @Override
@@ -43,17 +81,46 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public List<UsuarioDTO> findPage(long afterId, int limit) {
+        return userRepository.findDTOPage(afterId, Limit.of(limit));
+    }
+
     @Override
     public Optional<Usuario> findById(Long id) {
         java.util.Objects.requireNonNull(id, "id no puede ser nulo");
         return userRepository.findById(id);
     }
 
+    @Override
+    public Optional<UsuarioDTO> findDTOById(Long id) {
+        java.util.Objects.requireNonNull(id, "id no puede ser nulo");
+        return userRepository.findDTOById(id);
+    }
+
+    @Override
+    public Optional<VersionStamp> findVersion(Long id) {
+        java.util.Objects.requireNonNull(id, "id no puede ser nulo");
+        return userRepository.findVersionById(id);
+    }
+
+    @Override
+    public Optional<UsuarioDTO> findDTOByEmail(String email) {
+        if (email == null) return Optional.empty();
+        return userRepository.findDTOByEmail(email);
+    }
+
     @Override
     @Transactional
     public void deleteById(Long id) {
         java.util.Objects.requireNonNull(id, "id no puede ser nulo");
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(u -> principalCache.evict(u.getEmail()));
+        securityVersions.invalidate(id);
+        refreshTokenService.revokeAll(id);
+        // Retorna de inmediato: membresías, horarios y la fila del usuario los elimina UserPurger en segundo plano
+        userRepository.softDelete(id, new java.util.Date());
+        memberView.refreshUsuario(id);
+        searchIndex.remove(SearchIndex.Tipo.USUARIO, id);
     }
 
     @Override
@@ -70,11 +137,52 @@ public class UserServiceImpl implements UserService {
             Usuario user = u.get();
             boolean current = user.isEnabled();
             user.setEnabled(!current);
-            return userRepository.save(user);
+            securityVersions.bump(user);
+            if (current) {
+                refreshTokenService.revokeAll(id);
+            }
+            principalCache.evict(user.getEmail());
+            Usuario saved = userRepository.save(user);
+            memberView.refreshUsuario(id);
+            return saved;
         }
         throw new IllegalArgumentException("Usuario no encontrado");
     }
 
+    @Override
+    @Transactional
+    public BulkResult setEnabledBulk(List<Long> ids, String rol, Boolean sinMembresiaActiva, boolean enabled) {
+        boolean porIds = ids != null && !ids.isEmpty();
+        if (!porIds && rol == null && !Boolean.TRUE.equals(sinMembresiaActiva)) {
+            throw new IllegalArgumentException("Indique ids o un filtro");
+        }
+        List<Long> target = porIds
+                ? new ArrayList<>(new LinkedHashSet<>(ids))
+                : userRepository.findIdsByFiltro(rol, Boolean.TRUE.equals(sinMembresiaActiva));
+
+        Date now = new Date();
+        int afectados = 0;
+        Set<Long> cambiados = new HashSet<>();
+        for (int from = 0; from < target.size(); from += IN_CHUNK) {
+            List<Long> chunk = target.subList(from, Math.min(from + IN_CHUNK, target.size()));
+            List<UsuarioDTO> usuarios = userRepository.findDTOsWithEnabledNot(chunk, enabled);
+            if (usuarios.isEmpty()) continue;
+            List<Long> changeIds = usuarios.stream().map(UsuarioDTO::getId).toList();
+            afectados += userRepository.updateEnabled(changeIds, enabled, now);
+            memberView.refreshUsuarios(changeIds);
+            if (!enabled) {
+                refreshTokenService.revokeAll(changeIds);
+            }
+            for (UsuarioDTO u : usuarios) {
+                principalCache.evict(u.getEmail());
+                securityVersions.invalidate(u.getId());
+                cambiados.add(u.getId());
+            }
+        }
+        List<Long> omitidos = target.stream().filter(id -> !cambiados.contains(id)).toList();
+        return new BulkResult(afectados, omitidos);
+    }
+
     @Override
     @Transactional
     public Usuario updateUser(Long id, Usuario userData) {
@@ -85,13 +193,19 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Usuario no encontrado");
         }
         Usuario u = opt.get();
+        principalCache.evict(u.getEmail());
         // Verificar cambios de email/rut para evitar duplicados
-        if (userData.getEmail() != null && !userData.getEmail().equals(u.getEmail()) && userRepository.existsByEmail(userData.getEmail())) {
+        if (userData.getEmail() != null && !userData.getEmail().equals(u.getEmail())
+                && uniquenessFilter.mightContainEmail(userData.getEmail()) && userRepository.existsByEmail(userData.getEmail())) {
             throw new IllegalArgumentException("Email ya existe");
         }
-        if (userData.getRut() != null && !userData.getRut().equals(u.getRut()) && userRepository.existsByRut(userData.getRut())) {
+        if (userData.getRut() != null && !userData.getRut().equals(u.getRut())
+                && uniquenessFilter.mightContainRut(userData.getRut()) && userRepository.existsByRut(userData.getRut())) {
             throw new IllegalArgumentException("RUT ya existe");
         }
+        // El rol y el email viajan en el token: si cambian, los tokens emitidos dejan de valer
+        boolean credentialsChanged = !java.util.Objects.equals(u.getRol(), userData.getRol())
+                || !java.util.Objects.equals(u.getEmail(), userData.getEmail());
         u.setNombre(userData.getNombre());
         u.setApellido(userData.getApellido());
         u.setEmail(userData.getEmail());
@@ -100,8 +214,40 @@ public class UserServiceImpl implements UserService {
         // Si se proporciona nueva contraseña, actualizarla (codificada)
         if (userData.getPassword() != null && !userData.getPassword().isBlank()) {
             u.setPassword(passwordEncoder.encode(userData.getPassword()));
+            credentialsChanged = true;
+        }
+        if (credentialsChanged) {
+            securityVersions.bump(u);
+            refreshTokenService.revokeAll(id);
+        }
+        principalCache.evict(u.getEmail());
+        Usuario saved = saveUnique(u);
+        memberView.refreshUsuario(id);
+        searchIndex.indexUsuario(saved.getId(), saved.getNombre(), saved.getApellido(), saved.getEmail(), saved.getRut());
+        return saved;
+    }
+
+    /**
+     * Guarda con flush para que una violación de unicidad (un duplicado que el pre-chequeo no vio
+     * por concurrencia) se reporte aquí como error de validación y no al hacer commit.
+     */
+    private Usuario saveUnique(Usuario user) {
+        Usuario saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Email o RUT ya existe");
+        }
+        uniquenessFilter.add(saved.getEmail(), saved.getRut());
+        return saved;
+    }
+
+    @Override
+    public Usuario resolvePrincipal(Usuario principal) {
+        if (principal == null || !principal.isClaimsOnly()) {
+            return principal;
         }
-        return userRepository.save(u);
+        return userRepository.findById(principal.getId()).orElse(null);
     }
 
     @Override
@@ -0,0 +1,70 @@
+package com.example.proyecto1spring.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente para strings. {@link #mightContain(String)} nunca da falsos
+ * negativos: si responde false el valor no fue agregado. Usa un único hash de 64 bits
+ * (FNV-1a) y deriva las k posiciones por doble hashing, sin locks.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64, bits);
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.numBits = (long) words.length() << 6;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) break;
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % numBits;
+    }
+
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        // Mezcla final para repartir bien los bits altos y bajos
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
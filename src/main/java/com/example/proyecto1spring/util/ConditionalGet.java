@@ -0,0 +1,36 @@
+package com.example.proyecto1spring.util;
+
+import com.example.proyecto1spring.dto.VersionStamp;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * GET condicional para los endpoints que consulta la app en cada sondeo. Con la versión obtenida
+ * por una consulta de agregados se evalúan {@code If-None-Match} / {@code If-Modified-Since} antes de
+ * cargar o serializar entidades.
+ */
+public final class ConditionalGet {
+
+    // Revalidar siempre, solo en la caché del cliente. Reemplaza el no-store por defecto de Spring Security,
+    // que impediría al WebView guardar la respuesta y reenviar el ETag
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Agrega ETag y Last-Modified a la respuesta y retorna true si el cliente ya tiene esta versión;
+     * en ese caso la respuesta queda en 304 y el controlador debe retornar null.
+     */
+    public static boolean notModified(WebRequest request, VersionStamp version, String resource) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+        }
+        return request.checkNotModified(version.etag(resource), version.getLastModified());
+    }
+}
@@ -7,6 +7,7 @@ import com.example.proyecto1spring.repository.PlanRepository;
 import com.example.proyecto1spring.repository.RoleRepository;
 import com.example.proyecto1spring.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -22,13 +23,16 @@ public class DataLoader implements CommandLineRunner {
     private final UserRepository userRepository;
     private final PlanRepository planRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
 
     public DataLoader(RoleRepository roleRepository, UserRepository userRepository, 
-                      PlanRepository planRepository, PasswordEncoder passwordEncoder) {
+                      PlanRepository planRepository, PasswordEncoder passwordEncoder,
+                      JdbcTemplate jdbcTemplate) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
         this.planRepository = planRepository;
         this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -101,5 +105,22 @@ public class DataLoader implements CommandLineRunner {
         } else {
             System.out.println("✅ Planes ya existen en la base de datos (" + planRepository.count() + " planes)");
         }
+
+        // Membresías activas anteriores a la columna activa_usuario_id (o cargadas por SQL): queda activa
+        // solo una por usuario (la ya marcada o, si no hay, la más reciente) y se desactivan las demás
+        int desactivadas = jdbcTemplate.update("update membresias m set activa = false, updated_at = current_timestamp "
+                + "where m.activa = true and m.activa_usuario_id is null and ("
+                + "exists (select 1 from membresias m2 where m2.activa_usuario_id = m.usuario_id) "
+                + "or m.id < (select max(m3.id) from membresias m3 where m3.usuario_id = m.usuario_id and m3.activa = true))");
+        if (desactivadas > 0) {
+            System.out.println("✅ " + desactivadas + " membresías activas duplicadas desactivadas");
+        }
+        int completadas = jdbcTemplate.update("update membresias m set activa_usuario_id = m.usuario_id "
+                + "where m.activa = true and m.activa_usuario_id is null and m.id = "
+                + "(select max(m2.id) from membresias m2 where m2.usuario_id = m.usuario_id and m2.activa = true) "
+                + "and not exists (select 1 from membresias m3 where m3.activa_usuario_id = m.usuario_id)");
+        if (completadas > 0) {
+            System.out.println("✅ " + completadas + " membresías activas marcadas en activa_usuario_id");
+        }
     }
 }
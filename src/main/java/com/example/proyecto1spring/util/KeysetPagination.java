@@ -0,0 +1,80 @@
+package com.example.proyecto1spring.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor (keyset) sobre {@code id} para los endpoints de listado de /api.
+ * Cada página es un {@code WHERE id > :ultimoId ORDER BY id LIMIT n}, cuyo costo no crece con
+ * la posición como ocurre con OFFSET. El cursor es opaco para el cliente; la siguiente página
+ * se anuncia en el header {@value #NEXT_CURSOR_HEADER} y el cuerpo sigue siendo un arreglo JSON.
+ */
+@Component
+public class KeysetPagination {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String CURSOR_PREFIX = "id:";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPagination(@Value("${app.pagination.default-size:50}") int defaultSize,
+                            @Value("${app.pagination.max-size:200}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public int resolveSize(Integer size) {
+        if (size == null || size <= 0) return defaultSize;
+        return Math.min(size, maxSize);
+    }
+
+    /**
+     * Último id ya entregado según el cursor; 0 para la primera página.
+     */
+    public long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    public String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Se pide una fila extra para saber si hay página siguiente sin hacer un COUNT.
+     */
+    public int fetchSize(int size) {
+        return size + 1;
+    }
+
+    /**
+     * Recorta la fila extra y arma la respuesta con el cursor de la página siguiente, si existe.
+     */
+    public <T> ResponseEntity<List<T>> toResponse(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, size);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, encodeCursor(idOf.apply(page.get(size - 1))))
+                .body(page);
+    }
+}
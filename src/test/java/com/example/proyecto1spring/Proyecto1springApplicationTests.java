@@ -3,7 +3,7 @@ package com.example.proyecto1spring;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.jwt.secret=test-secret-de-al-menos-32-bytes-para-hs256")
 class Proyecto1springApplicationTests {
 
 	@Test
@@ -0,0 +1,141 @@
+package com.example.proyecto1spring.repository;
+
+import com.example.proyecto1spring.dto.MembresiaFiltro;
+import com.example.proyecto1spring.entity.Membresia;
+import com.example.proyecto1spring.entity.Plan;
+import com.example.proyecto1spring.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN (H2) que las consultas de {@code /api/membresias/search} usan los índices
+ * compuestos de {@link Membresia} en vez de recorrer la tabla. Se explica el SELECT que genera
+ * {@link MembresiaSpecs#search}, capturado con un StatementInspector. ANALYZE hace commit de la
+ * transacción abierta, así que los datos se cargan una vez por clase fuera de la transacción de la
+ * prueba y se eliminan al terminar.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.proyecto1spring.repository.MembresiaIndexTest$CapturaSql")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MembresiaIndexTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> planIds = new ArrayList<>();
+    private final List<Long> usuarioIds = new ArrayList<>();
+
+    @BeforeAll
+    void datos() {
+        // Sufijo por ejecución: los nombres de plan y los emails son unique
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Plan[] planes = new Plan[4];
+            for (int p = 0; p < planes.length; p++) {
+                planes[p] = new Plan("Plan índice " + run + " " + p, null, BigDecimal.TEN, 1);
+                em.persist(planes[p]);
+                planIds.add(planes[p].getId());
+            }
+            LocalDate base = LocalDate.of(2026, 1, 1);
+            for (int i = 0; i < 200; i++) {
+                Usuario usuario = new Usuario("Alumno" + i, "Indice", "", "indice" + i + "-" + run + "@test.cl", "USER");
+                em.persist(usuario);
+                usuarioIds.add(usuario.getId());
+                Membresia membresia = new Membresia(usuario, planes[i % planes.length], base.plusDays(i), base.plusDays(i).plusMonths(1));
+                membresia.setActiva(i % 3 != 0);
+                em.persist(membresia);
+            }
+        });
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void limpiar() {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        named.update("delete from membresias where usuario_id in (:ids)", Map.of("ids", usuarioIds));
+        named.update("delete from usuarios where id in (:ids)", Map.of("ids", usuarioIds));
+        named.update("delete from planes where id in (:ids)", Map.of("ids", planIds));
+    }
+
+    @Autowired
+    private MembresiaRepository membresiaRepository;
+
+    @Test
+    void planActivaYVencimientoUsaIndiceCompuesto() {
+        MembresiaFiltro filtro = new MembresiaFiltro();
+        filtro.setPlanId(planIds.get(0));
+        filtro.setActiva(true);
+        filtro.setFechaFinDesde(LocalDate.of(2026, 3, 1));
+        filtro.setFechaFinHasta(LocalDate.of(2026, 3, 31));
+        assertThat(explainSearch(filtro)).containsIgnoringCase("idx_membresias_plan_activa_fecha_fin");
+    }
+
+    @Test
+    void usuarioYActivaUsaIndiceCompuesto() {
+        MembresiaFiltro filtro = new MembresiaFiltro();
+        filtro.setUsuarioId(usuarioIds.get(0));
+        filtro.setActiva(true);
+        assertThat(explainSearch(filtro)).containsIgnoringCase("idx_membresias_usuario_activa");
+    }
+
+    /**
+     * Ejecuta la búsqueda como lo hace MembresiaServiceImpl.search y retorna el EXPLAIN del SELECT que
+     * generó la Specification (fetch join a usuarios y planes, keyset por id, orden y límite).
+     */
+    private String explainSearch(MembresiaFiltro filtro) {
+        CapturaSql.SQL.clear();
+        membresiaRepository.findBy(MembresiaSpecs.search(filtro, 0L), q -> q.sortBy(Sort.by("id")).limit(50).all());
+        String sql = CapturaSql.SQL.stream()
+                .filter(statement -> statement.startsWith("select") && statement.contains("from membresias"))
+                .reduce((first, last) -> last)
+                .orElseThrow();
+        assertThat(sql).contains("join usuarios", "deleted_at is null", "order by", "fetch first");
+        // H2 arma el plan sin necesitar los valores de los parámetros
+        return explain(sql);
+    }
+
+    // Registra el SQL que Hibernate envía a la base
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
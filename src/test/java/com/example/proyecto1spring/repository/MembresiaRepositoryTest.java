@@ -0,0 +1,101 @@
+package com.example.proyecto1spring.repository;
+
+import com.example.proyecto1spring.entity.Membresia;
+import com.example.proyecto1spring.entity.Plan;
+import com.example.proyecto1spring.entity.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MembresiaRepositoryTest {
+
+    @Autowired
+    private MembresiaRepository membresiaRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findByUsuarioUsaUnaConsultaSinImportarLaCantidad() {
+        Usuario uno = usuarioConMembresias("uno", 1);
+        Usuario muchos = usuarioConMembresias("muchos", 25);
+
+        assertThat(consultasAlLeer(uno)).isEqualTo(1);
+        assertThat(consultasAlLeer(muchos)).isEqualTo(1);
+    }
+
+    @Test
+    void listadoDTOUsaUnaConsulta() {
+        usuarioConMembresias("dto", 25);
+        Statistics stats = statistics();
+        stats.clear();
+
+        assertThat(membresiaRepository.findDTOPage(0L, Limit.of(200))).hasSizeGreaterThanOrEqualTo(25);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // MembresiaServiceImpl distingue esta violación por el nombre de la restricción
+    @Test
+    void segundaActivaReportaLaRestriccionPorNombre() {
+        Usuario usuario = usuarioConMembresias("duplicada", 1);
+        Plan plan = membresiaRepository.findByUsuario(usuario).get(0).getPlan();
+        Membresia otra = new Membresia(usuario, plan, LocalDate.now(), LocalDate.now().plusMonths(1));
+
+        assertThatThrownBy(() -> membresiaRepository.saveAndFlush(otra))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .cause()
+                .isInstanceOfSatisfying(ConstraintViolationException.class, cve ->
+                        assertThat(cve.getConstraintName()).containsIgnoringCase(Membresia.UK_ACTIVA_USUARIO));
+    }
+
+    // Lee las membresías del usuario y recorre usuario y plan como lo hacen las vistas
+    private long consultasAlLeer(Usuario usuario) {
+        em.clear();
+        Statistics stats = statistics();
+        stats.clear();
+        List<Membresia> membresias = membresiaRepository.findByUsuario(usuario);
+        for (Membresia m : membresias) {
+            assertThat(m.getUsuario().getEmail()).isNotNull();
+            assertThat(m.getPlan().getNombre()).isNotNull();
+        }
+        return stats.getPrepareStatementCount();
+    }
+
+    private Usuario usuarioConMembresias(String nombre, int cantidad) {
+        Usuario usuario = new Usuario(nombre, "Test", "", nombre + "@test.cl", "USER");
+        em.persist(usuario);
+        for (int i = 0; i < cantidad; i++) {
+            // Un plan distinto por membresía: el plan tampoco puede salir de la caché de la sesión
+            Plan plan = new Plan("Plan " + nombre + " " + i, null, BigDecimal.TEN, 1);
+            em.persist(plan);
+            Membresia membresia = new Membresia(usuario, plan, LocalDate.now(), LocalDate.now().plusMonths(1));
+            // Solo una activa por usuario (uk_membresias_activa_usuario); el resto es historial
+            membresia.setActiva(i == 0);
+            em.persist(membresia);
+        }
+        em.flush();
+        return usuario;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
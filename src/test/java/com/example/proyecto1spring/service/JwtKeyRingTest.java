@@ -0,0 +1,161 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.config.JwtKeyProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "secreto-heredado-de-al-menos-32-bytes";
+    private static final String SECRET_A = "secreto-de-la-clave-a-con-32-bytes!!";
+    private static final String SECRET_B = "secreto-de-la-clave-b-con-32-bytes!!";
+
+    @Test
+    void resuelveLaClavePorKid() {
+        JwtKeyRing ring = new JwtKeyRing(properties(null, hmac("a", SECRET_A), hmac("b", SECRET_B)), SECRET);
+
+        assertThat(parse(ring, token("b", SignatureAlgorithm.HS256, hmacKey(SECRET_B))).getSubject()).isEqualTo("alumno");
+        assertThat(parse(ring, token("a", SignatureAlgorithm.HS256, hmacKey(SECRET_A))).getSubject()).isEqualTo("alumno");
+        // Firmado con la clave a pero declarando kid b
+        assertThatThrownBy(() -> parse(ring, token("b", SignatureAlgorithm.HS256, hmacKey(SECRET_A))))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> parse(ring, token("c", SignatureAlgorithm.HS256, hmacKey(SECRET_A))))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void verificaES256SoloConLaClavePublica() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtKeyProperties.Key publica = new JwtKeyProperties.Key();
+        publica.setKid("es");
+        publica.setAlgorithm("ES256");
+        publica.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        JwtKeyRing ring = new JwtKeyRing(properties(null, publica), null);
+
+        assertThat(parse(ring, token("es", SignatureAlgorithm.ES256, pair.getPrivate())).getSubject()).isEqualTo("alumno");
+        // Un nodo sin clave privada no puede firmar
+        assertThatThrownBy(ring::signingKey).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void tokenSinKidUsaElSecretoSoloSinLlavero() {
+        JwtKeyRing soloSecreto = new JwtKeyRing(properties(null), SECRET);
+        assertThat(parse(soloSecreto, token(null, SignatureAlgorithm.HS256, hmacKey(SECRET))).getSubject()).isEqualTo("alumno");
+        assertThat(soloSecreto.signingKey().kid()).isEqualTo(JwtKeyRing.LEGACY_KID);
+
+        // Con llavero y sin legacy-not-after el secreto queda retirado: ni por kid ni sin él
+        JwtKeyRing rotado = new JwtKeyRing(properties(null, hmac("a", SECRET_A)), SECRET);
+        assertThatThrownBy(() -> parse(rotado, token(null, SignatureAlgorithm.HS256, hmacKey(SECRET))))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> parse(rotado, token(JwtKeyRing.LEGACY_KID, SignatureAlgorithm.HS256, hmacKey(SECRET))))
+                .isInstanceOf(JwtException.class);
+        assertThat(rotado.signingKey().kid()).isEqualTo("a");
+    }
+
+    @Test
+    void secretoHeredadoVerificaHastaLegacyNotAfter() {
+        JwtKeyRing vigente = new JwtKeyRing(properties(Instant.now().plus(Duration.ofMinutes(15)), hmac("a", SECRET_A)), SECRET);
+        assertThat(parse(vigente, token(null, SignatureAlgorithm.HS256, hmacKey(SECRET))).getSubject()).isEqualTo("alumno");
+        // Solo verifica: los tokens nuevos se firman con el llavero
+        assertThat(vigente.signingKey().kid()).isEqualTo("a");
+
+        JwtKeyRing retirado = new JwtKeyRing(properties(Instant.now().minusSeconds(1), hmac("a", SECRET_A)), SECRET);
+        assertThatThrownBy(() -> parse(retirado, token(null, SignatureAlgorithm.HS256, hmacKey(SECRET))))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining("retirada");
+    }
+
+    @Test
+    void rechazaAlgoritmoDistintoAlDeLaClave() {
+        String secreto384 = "secreto-de-48-bytes-para-firmar-con-hs384-!!!!!!";
+        JwtKeyProperties.Key clave = hmac("a", secreto384);
+        JwtKeyRing ring = new JwtKeyRing(properties(null, clave), SECRET);
+
+        assertThatThrownBy(() -> parse(ring, token("a", SignatureAlgorithm.HS384, hmacKey(secreto384))))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining("Algoritmo");
+    }
+
+    @Test
+    void respetaLaVentanaNotBeforeNotAfter() {
+        Instant now = Instant.now();
+        JwtKeyProperties.Key retirada = hmac("vieja", SECRET_A);
+        retirada.setNotBefore(now.minus(Duration.ofDays(60)));
+        retirada.setNotAfter(now.minusSeconds(1));
+        JwtKeyProperties.Key vigente = hmac("actual", SECRET_B);
+        vigente.setNotBefore(now.minus(Duration.ofDays(1)));
+        JwtKeyProperties.Key futura = hmac("futura", "secreto-de-la-clave-futura-32-bytes!");
+        futura.setNotBefore(now.plus(Duration.ofDays(1)));
+        JwtKeyRing ring = new JwtKeyRing(properties(null, retirada, vigente, futura), null);
+
+        // Firma la más reciente ya vigente, no la que aún no empieza
+        assertThat(ring.signingKey().kid()).isEqualTo("actual");
+        // La clave retirada ya no verifica
+        assertThatThrownBy(() -> parse(ring, token("vieja", SignatureAlgorithm.HS256, hmacKey(SECRET_A))))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining("retirada");
+        // La futura ya verifica: se distribuye antes de empezar a firmar con ella
+        assertThat(parse(ring, token("futura", SignatureAlgorithm.HS256,
+                hmacKey("secreto-de-la-clave-futura-32-bytes!"))).getSubject()).isEqualTo("alumno");
+    }
+
+    @Test
+    void noArrancaSinSecretoOConElValorDeEjemplo() {
+        assertThatThrownBy(() -> new JwtKeyRing(properties(null), ""))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new JwtKeyRing(properties(null), JwtKeyRing.PLACEHOLDER_SECRET))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new JwtKeyRing(properties(Instant.now(), hmac("a", SECRET_A)), JwtKeyRing.PLACEHOLDER_SECRET))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static JwtKeyProperties properties(Instant legacyNotAfter, JwtKeyProperties.Key... keys) {
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setKeys(List.of(keys));
+        properties.setLegacyNotAfter(legacyNotAfter);
+        return properties;
+    }
+
+    private static JwtKeyProperties.Key hmac(String kid, String secret) {
+        JwtKeyProperties.Key key = new JwtKeyProperties.Key();
+        key.setKid(kid);
+        key.setSecret(secret);
+        return key;
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String token(String kid, SignatureAlgorithm algorithm, Key key) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject("alumno")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        if (kid != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, kid);
+        }
+        return builder.signWith(key, algorithm).compact();
+    }
+
+    private static Claims parse(JwtKeyRing ring, String token) {
+        return Jwts.parserBuilder().setSigningKeyResolver(ring).build().parseClaimsJws(token).getBody();
+    }
+}
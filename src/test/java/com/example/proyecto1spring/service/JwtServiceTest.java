@@ -0,0 +1,57 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.config.JwtKeyProperties;
+import com.example.proyecto1spring.entity.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "secreto-de-prueba-de-al-menos-32-bytes";
+
+    private final JwtService jwtService = new JwtService(new JwtKeyRing(new JwtKeyProperties(), SECRET), 60_000);
+
+    @Test
+    void tokenEmitidoEsValidoParaSuUsuario() {
+        Usuario usuario = usuario("alumno@test.cl");
+        Claims claims = jwtService.parseToken(jwtService.generateToken(usuario));
+
+        assertThat(jwtService.isTokenValid(claims, usuario)).isTrue();
+        assertThat(jwtService.isTokenValid(claims, usuario("otro@test.cl"))).isFalse();
+    }
+
+    @Test
+    void tokenFirmadoSinExpiracionNoEsValido() {
+        Usuario usuario = usuario("alumno@test.cl");
+        String sinExp = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, JwtKeyRing.LEGACY_KID)
+                .setSubject(usuario.getUsername())
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        Claims claims = jwtService.parseToken(sinExp);
+
+        assertThat(claims.getExpiration()).isNull();
+        assertThat(jwtService.isTokenValid(claims, usuario)).isFalse();
+    }
+
+    @Test
+    void cuentaDeshabilitadaInvalidaSusTokens() {
+        Usuario usuario = usuario("alumno@test.cl");
+        Claims claims = jwtService.parseToken(jwtService.generateToken(usuario));
+        usuario.setEnabled(false);
+
+        assertThat(jwtService.isTokenValid(claims, usuario)).isFalse();
+    }
+
+    private static Usuario usuario(String email) {
+        return new Usuario("Alumno", "Test", "", email, "USER");
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.proyecto1spring.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void permiteLaRafagaYLuegoRechaza() {
+        LoginThrottle throttle = throttle(100_000);
+        long now = 0;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttle.tryAcquire("alumno@test.cl", null, now)).isTrue();
+        }
+        assertThat(throttle.tryAcquire("alumno@test.cl", null, now)).isFalse();
+        // Normaliza el email: otra capitalización es la misma clave
+        assertThat(throttle.tryAcquire(" ALUMNO@test.cl ", null, now)).isFalse();
+        assertThat(throttle.tryAcquire("otro@test.cl", null, now)).isTrue();
+    }
+
+    @Test
+    void recuperaUnTokenPorIntervalo() {
+        LoginThrottle throttle = throttle(100_000);
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            throttle.tryAcquire("alumno@test.cl", null, now);
+        }
+
+        // Intervalo de 12 s: a los 11 s sigue agotado, a los 12 s entra exactamente uno
+        assertThat(throttle.tryAcquire("alumno@test.cl", null, now + 11 * SEGUNDO)).isFalse();
+        assertThat(throttle.tryAcquire("alumno@test.cl", null, now + 12 * SEGUNDO)).isTrue();
+        assertThat(throttle.tryAcquire("alumno@test.cl", null, now + 12 * SEGUNDO)).isFalse();
+        // Tras 5 intervalos sin intentos la ráfaga completa está disponible de nuevo
+        long later = now + 12 * SEGUNDO + 60 * SEGUNDO;
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttle.tryAcquire("alumno@test.cl", null, later)).isTrue();
+        }
+        assertThat(throttle.tryAcquire("alumno@test.cl", null, later)).isFalse();
+    }
+
+    @Test
+    void limitaPorIpYPorEmail() {
+        LoginThrottle throttle = throttle(100_000);
+        long now = 0;
+        // Ráfaga de 20 por IP aunque cada intento use un email distinto
+        for (int i = 0; i < 20; i++) {
+            assertThat(throttle.tryAcquire("user" + i + "@test.cl", "10.0.0.1", now)).isTrue();
+        }
+        assertThat(throttle.tryAcquire("nuevo@test.cl", "10.0.0.1", now)).isFalse();
+        assertThat(throttle.tryAcquire("nuevo@test.cl", "10.0.0.2", now)).isTrue();
+    }
+
+    @Test
+    void unaAvalanchaDeClavesNuevasNoReiniciaElBucketDeLaVictima() {
+        // 4 entradas por stripe
+        LoginThrottle throttle = throttle(64 * 4);
+        String victima = "victima@test.cl";
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            throttle.tryAcquire(victima, null, now);
+        }
+        assertThat(throttle.tryAcquire(victima, null, now)).isFalse();
+
+        // Emails únicos que caen en el mismo stripe que la víctima, hasta llenarlo varias veces
+        int stripe = stripe(victima);
+        int enviados = 0;
+        for (int i = 0; enviados < 50; i++) {
+            String email = "spam" + i + "@test.cl";
+            if (stripe(email) == stripe) {
+                throttle.tryAcquire(email, null, now);
+                enviados++;
+            }
+        }
+
+        assertThat(throttle.tryAcquire(victima, null, now)).isFalse();
+    }
+
+    private static LoginThrottle throttle(int maxEntries) {
+        return new LoginThrottle(5, 12_000, 20, 1_000, maxEntries, new SimpleMeterRegistry());
+    }
+
+    // Mismo reparto que LoginThrottle (64 stripes sobre el hash de la clave normalizada)
+    private static int stripe(String email) {
+        return (email.hashCode() & 0x7fffffff) % 64;
+    }
+}
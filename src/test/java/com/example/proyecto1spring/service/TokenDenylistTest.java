@@ -0,0 +1,70 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.entity.DeniedToken;
+import com.example.proyecto1spring.repository.DeniedTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenDenylistTest {
+
+    private final DeniedTokenRepository repository = mock(DeniedTokenRepository.class);
+
+    @Test
+    void revocaHastaQueExpiraElToken() {
+        TokenDenylist denylist = new TokenDenylist(repository, 1024);
+        long enUnMinuto = System.currentTimeMillis() + 60_000;
+
+        denylist.revoke("jti-1", enUnMinuto);
+
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+        assertThat(denylist.isRevoked("jti-2")).isFalse();
+        assertThat(denylist.isRevoked(null)).isFalse();
+        verify(repository).save(any(DeniedToken.class));
+    }
+
+    @Test
+    void ignoraTokensYaExpirados() {
+        TokenDenylist denylist = new TokenDenylist(repository, 1024);
+
+        denylist.revoke("viejo", System.currentTimeMillis() - 1);
+
+        assertThat(denylist.isRevoked("viejo")).isFalse();
+        verify(repository, never()).save(any(DeniedToken.class));
+    }
+
+    @Test
+    void superarLaCapacidadNoPierdeRevocaciones() {
+        TokenDenylist denylist = new TokenDenylist(repository, 1024);
+        long enUnMinuto = System.currentTimeMillis() + 60_000;
+
+        // Más del doble de la capacidad inicial: el filtro se reconstruye al menos una vez
+        IntStream.range(0, 3000).forEach(i -> denylist.revoke("jti-" + i, enUnMinuto));
+
+        assertThat(IntStream.range(0, 3000).allMatch(i -> denylist.isRevoked("jti-" + i))).isTrue();
+        assertThat(denylist.size()).isEqualTo(3000);
+    }
+
+    @Test
+    void rebuildIncorporaLasRevocacionesDeOtrosNodos() {
+        TokenDenylist denylist = new TokenDenylist(repository, 1024);
+        denylist.revoke("local", System.currentTimeMillis() + 60_000);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new DeniedToken("de-otro-nodo", LocalDateTime.now().plusMinutes(10))));
+
+        denylist.rebuild();
+
+        assertThat(denylist.isRevoked("de-otro-nodo")).isTrue();
+        assertThat(denylist.isRevoked("local")).isTrue();
+        verify(repository).deleteExpired(any());
+    }
+}
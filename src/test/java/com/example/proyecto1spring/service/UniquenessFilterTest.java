@@ -0,0 +1,76 @@
+package com.example.proyecto1spring.service;
+
+import com.example.proyecto1spring.dto.UsuarioDTO;
+import com.example.proyecto1spring.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UniquenessFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void antesDeLaCargaInicialSiempreConsultaLaBase() {
+        UniquenessFilter filter = new UniquenessFilter(userRepository, 1000, new SimpleMeterRegistry());
+
+        assertThat(filter.mightContainEmail("nadie@test.cl")).isTrue();
+        assertThat(filter.mightContainRut("11111111-1")).isTrue();
+        assertThat(filter.mightContainEmail(null)).isFalse();
+    }
+
+    @Test
+    void trasLaCargaLosExistentesSiempreSonQuizas() {
+        List<UsuarioDTO> usuarios = usuarios(500);
+        when(userRepository.findDTOPage(eq(0L), any())).thenReturn(usuarios);
+        UniquenessFilter filter = new UniquenessFilter(userRepository, 1000, new SimpleMeterRegistry());
+
+        filter.seed();
+
+        for (UsuarioDTO u : usuarios) {
+            assertThat(filter.mightContainEmail(u.getEmail())).isTrue();
+            assertThat(filter.mightContainRut(u.getRut())).isTrue();
+        }
+        long omitidos = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!filter.mightContainEmail("nuevo" + i + "@test.cl")) omitidos++;
+        }
+        // Con 1 % de falsos positivos casi todos los emails nuevos se resuelven sin consultar la base
+        assertThat(omitidos).isGreaterThan(950);
+    }
+
+    @Test
+    void agregadosDespuesDeLaCargaSonQuizasAunqueSeSupereLaCapacidad() {
+        when(userRepository.findDTOPage(eq(0L), any())).thenReturn(List.of());
+        UniquenessFilter filter = new UniquenessFilter(userRepository, 100, new SimpleMeterRegistry());
+        filter.seed();
+
+        // Los usuarios ya están en la base cuando el filtro se reconstruye al doble de capacidad
+        List<UsuarioDTO> usuarios = usuarios(250);
+        when(userRepository.findDTOPage(eq(0L), any())).thenAnswer(inv -> usuarios);
+        for (UsuarioDTO u : usuarios) {
+            filter.add(u.getEmail(), u.getRut());
+        }
+
+        for (UsuarioDTO u : usuarios) {
+            assertThat(filter.mightContainEmail(u.getEmail())).isTrue();
+            assertThat(filter.mightContainRut(u.getRut())).isTrue();
+        }
+    }
+
+    private static List<UsuarioDTO> usuarios(int cantidad) {
+        List<UsuarioDTO> usuarios = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            usuarios.add(new UsuarioDTO((long) i, "Alumno", "Test", "alumno" + i + "@test.cl", i + "-K", "ALUMNO"));
+        }
+        return usuarios;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.proyecto1spring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int CAPACITY = 100_000;
+    private static final double TARGET = 0.01;
+
+    @Test
+    void nuncaDaFalsosNegativos() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put("alumno" + i + "@test.cl");
+        }
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(filter.mightContain("alumno" + i + "@test.cl")).isTrue();
+        }
+    }
+
+    @Test
+    void nuncaDaFalsosNegativosConEscriturasConcurrentes() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET);
+        String[] jtis = IntStream.range(0, CAPACITY).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        IntStream.range(0, CAPACITY).parallel().forEach(i -> filter.put(jtis[i]));
+
+        for (String jti : jtis) {
+            assertThat(filter.mightContain(jti)).isTrue();
+        }
+    }
+
+    @Test
+    void tasaDeFalsosPositivosCercanaAlObjetivoEnLaCapacidadPrevista() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            // Prefijo distinto: ninguno de estos valores fue agregado
+            if (filter.mightContain("ausente-" + i)) falsePositives++;
+        }
+        double rate = (double) falsePositives / probes;
+        assertThat(rate).isLessThan(TARGET * 1.5);
+    }
+
+    @Test
+    void vacioNoContieneNada() {
+        BloomFilter filter = new BloomFilter(1024, TARGET);
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("jti")).isFalse();
+    }
+}